@@ -1,12 +1,19 @@
 package com.zing.zing;
 
+import java.util.Arrays;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import com.zing.zing.batch.BatchCommand;
+
 @SpringBootApplication
 public class ZingApplication {
 
 	public static void main(String[] args) {
+		if (args.length > 0 && BatchCommand.COMMAND.equals(args[0])) {
+			System.exit(BatchCommand.launch(Arrays.copyOfRange(args, 1, args.length)));
+		}
 		SpringApplication.run(ZingApplication.class, args);
 	}
 
@@ -0,0 +1,165 @@
+package com.zing.zing.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.ZingApplication;
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Headless batch rendering, started with "batch" as the first argument
+ *
+ * <pre>
+ * java -jar zing.jar batch --manifest=labels.csv --output=out --formats=png,pdf
+ * java -jar zing.jar batch --manifest=labels.ndjson --sheet=out/labels.pdf --sheet-columns=5
+ * </pre>
+ *
+ * Options: manifest (required), output (default qr-output), formats (png,
+ * pdf, svg; default png unless sheet is given), sheet, sheet-columns
+ * (default 4), parallelism (default: available processors) and
+ * progress-interval (default 5s). Items that failed are listed in
+ * {output}/failed.csv and the exit code is 1; rerunning renders only
+ * missing files.
+ */
+@Component
+@Profile(BatchCommand.PROFILE)
+@RequiredArgsConstructor
+@Slf4j
+public class BatchCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String COMMAND = "batch";
+    public static final String PROFILE = "batch";
+
+    private static final String FAILURES_FILE = "failed.csv";
+
+    private final BatchRenderer batchRenderer;
+    private final QRCodeConfig qrCodeConfig;
+
+    private int exitCode;
+
+    /**
+     * Runs a batch without the web server and returns the process exit code
+     */
+    public static int launch(String... args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ZingApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(PROFILE)
+                .run(args);
+        return SpringApplication.exit(context);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String manifestOption = option(args, "manifest", null);
+        if (manifestOption == null) {
+            log.error("Missing --manifest=<file.csv|file.ndjson>");
+            exitCode = 2;
+            return;
+        }
+
+        Path manifest = Paths.get(manifestOption);
+        Path output = Paths.get(option(args, "output", "qr-output"));
+        String sheetOption = option(args, "sheet", null);
+        Set<BatchRenderer.Format> formats = formats(option(args, "formats", sheetOption != null ? "" : "png"));
+        int columns = Integer.parseInt(option(args, "sheet-columns", "4"));
+        int parallelism = Integer.parseInt(option(args, "parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        Duration progressInterval = DurationStyle.detectAndParse(option(args, "progress-interval", "5s"));
+
+        List<BatchItem> items = BatchManifest.read(manifest, qrCodeConfig.getDefaults().getWidth(),
+                qrCodeConfig.getDefaults().getHeight());
+        log.info("Batch of {} items from {}: formats={}, sheet={}, parallelism={}", items.size(), manifest,
+                formats, sheetOption, parallelism);
+
+        // One progress for both passes; an item counts once per pass
+        int passes = (formats.isEmpty() ? 0 : 1) + (sheetOption != null ? 1 : 0);
+        BatchProgress progress = new BatchProgress((long) items.size() * passes);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(progress::report, progressInterval.toMillis(), progressInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        try {
+            if (!formats.isEmpty()) {
+                batchRenderer.renderFiles(items, formats, output, pool, progress);
+            }
+            if (sheetOption != null) {
+                batchRenderer.renderSheet(items, columns, Paths.get(sheetOption), pool, progress);
+            }
+        } finally {
+            reporter.shutdownNow();
+            pool.shutdown();
+        }
+
+        progress.report();
+        writeFailures(progress, output);
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private void writeFailures(BatchProgress progress, Path output) throws IOException {
+        Path failuresFile = output.resolve(FAILURES_FILE);
+        if (progress.getFailed() == 0) {
+            Files.deleteIfExists(failuresFile);
+            return;
+        }
+        Files.createDirectories(output);
+        try (Writer writer = Files.newBufferedWriter(failuresFile, StandardCharsets.UTF_8)) {
+            writer.write("id,error\n");
+            for (Map.Entry<String, String> failure : progress.getFailures().entrySet()) {
+                writer.write(failure.getKey() + ",\"" + failure.getValue().replace("\"", "\"\"") + "\"\n");
+            }
+        }
+        log.warn("{} items failed, listed in {}", progress.getFailed(), failuresFile);
+        exitCode = 1;
+    }
+
+    private static Set<BatchRenderer.Format> formats(String value) {
+        Set<BatchRenderer.Format> formats = EnumSet.noneOf(BatchRenderer.Format.class);
+        for (String format : value.split(",")) {
+            if (!format.isBlank()) {
+                formats.add(BatchRenderer.Format.valueOf(format.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return formats;
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(values.size() - 1);
+    }
+}
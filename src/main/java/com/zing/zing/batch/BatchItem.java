@@ -0,0 +1,18 @@
+package com.zing.zing.batch;
+
+/**
+ * One code of a batch manifest
+ *
+ * @param id     Output file name without extension; the row number if the manifest has no id
+ * @param text   Text to encode
+ * @param width  Width in pixels
+ * @param height Height in pixels
+ * @param logo   Whether the company logo is embedded
+ * @param style  Name of a style from qrcode.styles, or null for the plain code
+ */
+public record BatchItem(String id, String text, int width, int height, boolean logo, String style) {
+
+    public BatchItem(String id, String text, int width, int height, boolean logo) {
+        this(id, text, width, height, logo, null);
+    }
+}
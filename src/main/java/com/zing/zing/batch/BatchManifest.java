@@ -0,0 +1,175 @@
+package com.zing.zing.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads batch manifests
+ * CSV files (.csv) have a header row naming the columns id, text, width,
+ * height, logo and style; only text is required and quoted fields may contain
+ * commas, quotes ("") and line breaks. NDJSON files (.ndjson, .jsonl) have
+ * one object per line with the same fields. Missing sizes take the given
+ * defaults, a missing id the 1-based row number.
+ */
+public final class BatchManifest {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private BatchManifest() {
+    }
+
+    /**
+     * Reads a manifest, picking the format from the file extension
+     *
+     * @throws IllegalArgumentException if a row is malformed or an id is not a safe file name
+     */
+    public static List<BatchItem> read(Path manifest, int defaultWidth, int defaultHeight) throws IOException {
+        String name = manifest.getFileName().toString().toLowerCase(Locale.ROOT);
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return readNdjson(reader, defaultWidth, defaultHeight);
+            }
+            if (name.endsWith(".csv")) {
+                return readCsv(reader, defaultWidth, defaultHeight);
+            }
+        }
+        throw new IllegalArgumentException("Manifest must be .csv, .ndjson or .jsonl: " + manifest);
+    }
+
+    static List<BatchItem> readCsv(BufferedReader reader, int defaultWidth, int defaultHeight) throws IOException {
+        List<List<String>> rows = parseCsv(reader);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = rows.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("text")) {
+            throw new IllegalArgumentException("CSV manifest needs a text column, header was " + header);
+        }
+
+        List<BatchItem> items = new ArrayList<>(rows.size() - 1);
+        for (int row = 1; row < rows.size(); row++) {
+            List<String> fields = rows.get(row);
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            columns.forEach((column, index) -> {
+                if (index < fields.size() && !fields.get(index).isBlank()) {
+                    values.put(column, fields.get(index).trim());
+                }
+            });
+            items.add(item(values, items.size() + 1, defaultWidth, defaultHeight));
+        }
+        return items;
+    }
+
+    static List<BatchItem> readNdjson(BufferedReader reader, int defaultWidth, int defaultHeight)
+            throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<BatchItem> items = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Malformed manifest line " + lineNumber + ": " + e.getMessage());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                if (!field.getValue().isNull()) {
+                    values.put(field.getKey().toLowerCase(Locale.ROOT), field.getValue().asText());
+                }
+            }
+            items.add(item(values, items.size() + 1, defaultWidth, defaultHeight));
+        }
+        return items;
+    }
+
+    private static BatchItem item(Map<String, String> values, int row, int defaultWidth, int defaultHeight) {
+        String id = values.getOrDefault("id", String.valueOf(row));
+        if (!ID_PATTERN.matcher(id).matches() || id.startsWith(".")) {
+            throw new IllegalArgumentException("Row " + row + ": id must be a plain file name, got '" + id + "'");
+        }
+        try {
+            return new BatchItem(id, values.get("text"),
+                    values.containsKey("width") ? Integer.parseInt(values.get("width")) : defaultWidth,
+                    values.containsKey("height") ? Integer.parseInt(values.get("height")) : defaultHeight,
+                    Boolean.parseBoolean(values.get("logo")), values.get("style"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Row " + row + ": width and height must be integers");
+        }
+    }
+
+    /**
+     * RFC 4180 style parsing: fields separated by commas, records by CRLF or LF
+     */
+    private static List<List<String>> parseCsv(BufferedReader reader) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                field.setLength(0);
+                rows.add(fields);
+                fields = new ArrayList<>();
+                any = false;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("CSV manifest ends inside a quoted field");
+        }
+        if (any) {
+            fields.add(field.toString());
+            rows.add(fields);
+        }
+        return rows;
+    }
+}
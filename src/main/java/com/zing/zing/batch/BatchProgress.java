@@ -0,0 +1,85 @@
+package com.zing.zing.batch;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counters of a batch run, logged periodically and at the end
+ */
+@Slf4j
+public class BatchProgress {
+
+    private final long total;
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+
+    public BatchProgress(long total) {
+        this.total = total;
+    }
+
+    void rendered() {
+        rendered.increment();
+    }
+
+    void skipped() {
+        skipped.increment();
+    }
+
+    void failed(String id, String error) {
+        failed.increment();
+        failures.put(id, error);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getRendered() {
+        return rendered.sum();
+    }
+
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Error message by item id, sorted by id
+     */
+    public Map<String, String> getFailures() {
+        return new TreeMap<>(failures);
+    }
+
+    /**
+     * Logs items done, render rate and the estimated time left
+     */
+    public void report() {
+        long renderedCount = rendered.sum();
+        long done = renderedCount + skipped.sum() + failed.sum();
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-3);
+        double rate = renderedCount / seconds;
+        String eta = rate > 0 ? format(Duration.ofSeconds(Math.round((total - done) / rate))) : "-";
+
+        log.info("Batch progress: {}/{} ({}%), {} rendered, {} skipped, {} failed, {}/s, ETA {}", done, total,
+                total == 0 ? 100 : done * 100 / total, renderedCount, skipped.sum(), failed.sum(),
+                Math.round(rate), eta);
+    }
+
+    private static String format(Duration duration) {
+        return duration.toHours() > 0
+                ? String.format("%dh%02dm", duration.toHours(), duration.toMinutesPart())
+                : String.format("%dm%02ds", duration.toMinutes(), duration.toSecondsPart());
+    }
+}
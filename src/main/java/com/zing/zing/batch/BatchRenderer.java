@@ -0,0 +1,254 @@
+package com.zing.zing.batch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import org.springframework.stereotype.Component;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.zing.zing.qrController.QRCodeService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renders batch manifests with QRCodeService on a fork-join pool
+ * Items are split recursively across the pool's workers, which steal work
+ * from each other, so a long render on one worker does not leave the rest
+ * idle. Each output file is written to a temporary file and renamed, so a
+ * file that exists is complete and a rerun skips it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchRenderer {
+
+    /** Items rendered by one task before it stops splitting */
+    private static final int SPLIT_THRESHOLD = 8;
+
+    /** Sheet rows rendered ahead before they are added to the document */
+    private static final int SHEET_WINDOW_ROWS = 64;
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final QRCodeService qrCodeService;
+
+    /**
+     * Output file formats
+     */
+    public enum Format {
+        PNG,
+        PDF,
+        SVG;
+
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Renders every item to {id}.{extension} in the output directory, once
+     * per format; items whose files all exist already are skipped
+     */
+    public void renderFiles(List<BatchItem> items, Set<Format> formats, Path outputDirectory, ForkJoinPool pool,
+            BatchProgress progress) throws IOException {
+        Files.createDirectories(outputDirectory);
+        deletePartialFiles(outputDirectory);
+
+        pool.invoke(new RenderRange(0, items.size(), index -> {
+            BatchItem item = items.get(index);
+            try {
+                boolean renderedAny = false;
+                for (Format format : formats) {
+                    Path target = outputDirectory.resolve(item.id() + "." + format.extension());
+                    if (!Files.exists(target)) {
+                        writeAtomically(target, render(item, format));
+                        renderedAny = true;
+                    }
+                }
+                if (renderedAny) {
+                    progress.rendered();
+                } else {
+                    progress.skipped();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to render batch item {}: {}", item.id(), e.getMessage());
+                progress.failed(item.id(), String.valueOf(e.getMessage()));
+            }
+        }));
+    }
+
+    /**
+     * Renders every item as a PNG and lays them out in manifest order on A4
+     * pages, each code above its id. Failed items get a placeholder cell.
+     * The sheet is one document, so it is always rendered in full.
+     */
+    public void renderSheet(List<BatchItem> items, int columns, Path sheet, ForkJoinPool pool,
+            BatchProgress progress) throws IOException, DocumentException {
+        Path parent = sheet.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, sheet.getFileName().toString(), PART_SUFFIX);
+
+        try {
+            Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                PdfWriter.getInstance(document, out);
+                document.open();
+                try {
+                    addSheetRows(document, items, columns, pool, progress);
+                } finally {
+                    // Closing the document writes the trailer, so it must happen before the stream closes
+                    document.close();
+                }
+            }
+            move(temp, sheet);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void addSheetRows(Document document, List<BatchItem> items, int columns, ForkJoinPool pool,
+            BatchProgress progress) throws IOException, DocumentException {
+        PdfPTable table = new PdfPTable(columns);
+        table.setWidthPercentage(100);
+        // Flush rows to the document as windows complete instead of holding the whole table
+        table.setComplete(false);
+        Font captionFont = new Font(Font.FontFamily.HELVETICA, 7);
+
+        int window = columns * SHEET_WINDOW_ROWS;
+        for (int start = 0; start < items.size(); start += window) {
+            int end = Math.min(start + window, items.size());
+            byte[][] images = new byte[end - start][];
+            int offset = start;
+            pool.invoke(new RenderRange(start, end, index -> {
+                BatchItem item = items.get(index);
+                try {
+                    images[index - offset] = render(item, Format.PNG);
+                    progress.rendered();
+                } catch (Exception e) {
+                    log.warn("Failed to render batch item {}: {}", item.id(), e.getMessage());
+                    progress.failed(item.id(), String.valueOf(e.getMessage()));
+                }
+            }));
+
+            for (int i = 0; i < images.length; i++) {
+                table.addCell(sheetCell(items.get(start + i), images[i], captionFont));
+            }
+            document.add(table);
+        }
+
+        table.completeRow();
+        table.setComplete(true);
+        document.add(table);
+    }
+
+    /**
+     * Renders through the same style-aware overloads as the controllers, so a
+     * row gives the bytes the server returns for the same parameters
+     */
+    private byte[] render(BatchItem item, Format format) throws Exception {
+        return switch (format) {
+            case PNG -> qrCodeService.generateQRCodeImageWithLogo(item.text(), item.width(), item.height(),
+                    item.logo(), item.style());
+            case PDF -> qrCodeService.generateQRCodePDFWithLogo(item.text(), item.width(), item.height(),
+                    item.logo(), item.style());
+            case SVG -> qrCodeService.generateQRCodeSVG(item.text(), item.width(), item.height(), item.logo(),
+                    item.style());
+        };
+    }
+
+    private static PdfPCell sheetCell(BatchItem item, byte[] png, Font captionFont) throws IOException,
+            DocumentException {
+        PdfPCell cell = new PdfPCell();
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setPadding(6);
+        if (png != null) {
+            Image image = Image.getInstance(png);
+            image.setAlignment(Element.ALIGN_CENTER);
+            image.scaleToFit(120, 120);
+            cell.addElement(image);
+        }
+        Paragraph caption = new Paragraph(png != null ? item.id() : item.id() + " (failed)", captionFont);
+        caption.setAlignment(Element.ALIGN_CENTER);
+        cell.addElement(caption);
+        return cell;
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), PART_SUFFIX);
+        try {
+            Files.write(temp, bytes);
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Removes temporary files left by an interrupted run
+     */
+    private static void deletePartialFiles(Path directory) throws IOException {
+        try (DirectoryStream<Path> partial = Files.newDirectoryStream(directory, "*" + PART_SUFFIX)) {
+            for (Path path : partial) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Range of item indexes, split in halves until small enough to run
+     */
+    private static final class RenderRange extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final transient IntConsumer task;
+
+        RenderRange(int from, int to, IntConsumer task) {
+            this.from = from;
+            this.to = to;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    task.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RenderRange(from, middle, task), new RenderRange(middle, to, task));
+        }
+    }
+}
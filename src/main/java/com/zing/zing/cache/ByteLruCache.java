@@ -0,0 +1,63 @@
+package com.zing.zing.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU map of byte arrays bounded by total payload size
+ */
+public class ByteLruCache<K> {
+
+    private final long maxBytes;
+
+    private final Map<K, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    public ByteLruCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public byte[] get(K key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Stores the value unless it alone exceeds the bound, evicting least
+     * recently used entries as needed
+     */
+    public void put(K key, byte[] value) {
+        if (value.length > maxBytes) {
+            return;
+        }
+
+        synchronized (entries) {
+            byte[] previous = entries.put(key, value);
+            if (previous != null) {
+                totalBytes -= previous.length;
+            }
+            totalBytes += value.length;
+
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long sizeInBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+}
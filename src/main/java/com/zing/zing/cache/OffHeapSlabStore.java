@@ -0,0 +1,281 @@
+package com.zing.zing.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU store of byte arrays kept outside the Java heap
+ * Memory is reserved as direct ByteBuffer slabs, allocated lazily up to the
+ * size bound and never freed, and handed out in fixed-size pages; an entry
+ * is the list of its pages. The heap only holds the index, a few dozen
+ * bytes per entry plus one int per page, so heap use stays flat however
+ * much rendered output is kept.
+ *
+ * Entries are read through leases. An entry evicted while leased keeps its
+ * pages until the last lease is closed, so a response being written is
+ * never overwritten by a newer entry. Leases that are dropped without being
+ * closed are released when they are garbage collected.
+ */
+public class OffHeapSlabStore<K> {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /** Per-thread copy buffer for writing pages to a stream */
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[0]);
+
+    private final int pageBytes;
+    private final int pagesPerSlab;
+    private final ByteBuffer[] slabs;
+    private final int[] freePages;
+
+    private final Map<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int allocatedSlabs;
+    private int freeCount;
+    private long totalBytes;
+
+    /**
+     * @param maxBytes  Bound on reserved off-heap memory, rounded down to whole slabs (at least one)
+     * @param slabBytes Size of each direct buffer, rounded down to whole pages
+     * @param pageBytes Allocation unit; an entry wastes on average half a page
+     */
+    public OffHeapSlabStore(long maxBytes, int slabBytes, int pageBytes) {
+        if (pageBytes <= 0 || slabBytes < pageBytes) {
+            throw new IllegalArgumentException("Slab size must be at least one page, got slab=" + slabBytes
+                    + " page=" + pageBytes);
+        }
+        this.pageBytes = pageBytes;
+        this.pagesPerSlab = slabBytes / pageBytes;
+        long slabSize = (long) pagesPerSlab * pageBytes;
+        int maxSlabs = (int) Math.max(1, Math.min(maxBytes / slabSize, Integer.MAX_VALUE / pagesPerSlab));
+        this.slabs = new ByteBuffer[maxSlabs];
+        this.freePages = new int[maxSlabs * pagesPerSlab];
+    }
+
+    /**
+     * Stores a copy of the value, evicting least recently used entries as
+     * needed; returns false, evicting nothing, if it does not fit even after
+     * eviction. Leased entries are skipped, since evicting them would not
+     * free their pages.
+     */
+    public boolean put(K key, byte[] value) {
+        int pagesNeeded = (value.length + pageBytes - 1) / pageBytes;
+        if (pagesNeeded > freePages.length) {
+            return false;
+        }
+
+        synchronized (entries) {
+            if (reclaimablePages(pagesNeeded) < pagesNeeded) {
+                // Too many pages are held by leased entries; keep what is cached
+                return false;
+            }
+
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                totalBytes -= previous.length;
+                release(previous);
+            }
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (availablePages() < pagesNeeded && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                if (evicted.refs > 1) {
+                    continue;
+                }
+                eldest.remove();
+                totalBytes -= evicted.length;
+                release(evicted);
+            }
+
+            int[] pages = new int[pagesNeeded];
+            for (int i = 0, offset = 0; i < pagesNeeded; i++, offset += pageBytes) {
+                pages[i] = takePage();
+                slab(pages[i]).put(pageOffset(pages[i]), value, offset, Math.min(pageBytes, value.length - offset));
+            }
+            entries.put(key, new Entry(pages, value.length));
+            totalBytes += value.length;
+            return true;
+        }
+    }
+
+    /**
+     * Leases the entry for reading, or returns null if absent; close the
+     * lease once the bytes have been written
+     */
+    public Lease lease(K key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.refs++;
+        }
+        return new Lease(this, entry);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Bytes held by stored entries, excluding page padding
+     */
+    public long sizeInBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * Off-heap memory reserved so far
+     */
+    public long reservedBytes() {
+        synchronized (entries) {
+            return (long) allocatedSlabs * pagesPerSlab * pageBytes;
+        }
+    }
+
+    /**
+     * Free pages plus the pages of unleased entries, counted from the least
+     * recently used until at least wanted are found
+     */
+    private int reclaimablePages(int wanted) {
+        int reclaimable = availablePages();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (reclaimable < wanted && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (entry.refs == 1) {
+                reclaimable += entry.pages.length;
+            }
+        }
+        return reclaimable;
+    }
+
+    private int availablePages() {
+        return freeCount + (slabs.length - allocatedSlabs) * pagesPerSlab;
+    }
+
+    private int takePage() {
+        if (freeCount == 0) {
+            int slab = allocatedSlabs++;
+            slabs[slab] = ByteBuffer.allocateDirect(pagesPerSlab * pageBytes);
+            for (int page = (slab + 1) * pagesPerSlab - 1; page >= slab * pagesPerSlab; page--) {
+                freePages[freeCount++] = page;
+            }
+        }
+        return freePages[--freeCount];
+    }
+
+    private void release(Entry entry) {
+        synchronized (entries) {
+            if (--entry.refs == 0) {
+                for (int page : entry.pages) {
+                    freePages[freeCount++] = page;
+                }
+            }
+        }
+    }
+
+    private ByteBuffer slab(int page) {
+        return slabs[page / pagesPerSlab];
+    }
+
+    private int pageOffset(int page) {
+        return (page % pagesPerSlab) * pageBytes;
+    }
+
+    /**
+     * Stored pages; refs counts the store's own reference plus open leases
+     */
+    private static final class Entry {
+
+        final int[] pages;
+        final int length;
+        int refs = 1;
+
+        Entry(int[] pages, int length) {
+            this.pages = pages;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Read access to one entry; its pages stay reserved until it is closed
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final OffHeapSlabStore<?> store;
+        private final Entry entry;
+        private final Cleaner.Cleanable cleanable;
+
+        private Lease(OffHeapSlabStore<?> store, Entry entry) {
+            this.store = store;
+            this.entry = entry;
+            // The action must not reference the lease, or it would never become unreachable
+            this.cleanable = CLEANER.register(this, () -> store.release(entry));
+        }
+
+        public int length() {
+            return entry.length;
+        }
+
+        /**
+         * Copies the entry to the stream page by page through a per-thread buffer
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            byte[] chunk = CHUNK.get();
+            if (chunk.length < store.pageBytes) {
+                chunk = new byte[store.pageBytes];
+                CHUNK.set(chunk);
+            }
+            int remaining = entry.length;
+            for (int page : entry.pages) {
+                int length = Math.min(store.pageBytes, remaining);
+                store.slab(page).get(store.pageOffset(page), chunk, 0, length);
+                out.write(chunk, 0, length);
+                remaining -= length;
+            }
+        }
+
+        /**
+         * Read-only view of up to maxLength bytes from offset, ending at the
+         * page boundary at the latest; valid until the lease is closed
+         */
+        public ByteBuffer slice(int offset, int maxLength) {
+            if (offset < 0 || offset >= entry.length) {
+                throw new IndexOutOfBoundsException("Offset " + offset + " outside entry of " + entry.length);
+            }
+            int page = entry.pages[offset / store.pageBytes];
+            int inPage = offset % store.pageBytes;
+            int length = Math.min(maxLength, Math.min(store.pageBytes - inPage, entry.length - offset));
+            int start = store.pageOffset(page) + inPage;
+            return store.slab(page).asReadOnlyBuffer().position(start).limit(start + length).slice();
+        }
+
+        /**
+         * Copies the entry onto the heap
+         */
+        public byte[] toByteArray() {
+            byte[] bytes = new byte[entry.length];
+            for (int i = 0, offset = 0; i < entry.pages.length; i++, offset += store.pageBytes) {
+                int page = entry.pages[i];
+                store.slab(page).get(store.pageOffset(page), bytes, offset,
+                        Math.min(store.pageBytes, entry.length - offset));
+            }
+            return bytes;
+        }
+
+        @Override
+        public void close() {
+            cleanable.clean();
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package com.zing.zing.cache;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.zxing.WriterException;
+import com.itextpdf.text.DocumentException;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.exception.QRCodeGenerationException;
+import com.zing.zing.qrController.QRCodeService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Render cache shared across service nodes, in the style of groupcache
+ * Every key has an owning node on a consistent hash ring built from static
+ * membership. The owner renders the key once and keeps it in its main cache;
+ * other nodes fetch it over HTTP and keep a small hot copy. Unreachable
+ * peers are skipped for a while and the key is rendered locally instead.
+ * Concurrent requests for the same key share a single render or fetch.
+ *
+ * With qrcode.cache.off-heap.enabled the main cache lives in direct memory;
+ * getOutput then serves owned keys straight from it.
+ */
+@Component
+@Slf4j
+public class PeerRenderCache implements DisposableBean {
+
+    static final String PEER_PATH = "/internal/v1/cache/render";
+
+    private final QRCodeService qrCodeService;
+    private final QRCodeConfig.Cache config;
+    private final ObjectMapper objectMapper;
+
+    private final ByteLruCache<RenderKey> mainCache;
+    private final OffHeapSlabStore<RenderKey> offHeapCache;
+    private final ByteLruCache<RenderKey> hotCache;
+    private final ConsistentHashRing ring;
+    private final List<String> memberHosts;
+    private final Map<String, Set<InetAddress>> resolvedHosts = new ConcurrentHashMap<>();
+    private volatile Set<InetAddress> memberAddresses = Set.of();
+    private final ScheduledExecutorService memberResolver;
+    private final String self;
+    private final HttpClient httpClient;
+
+    private final Map<RenderKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> peerDownUntil = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder peerFetches = new LongAdder();
+    private final LongAdder peerFailures = new LongAdder();
+
+    public PeerRenderCache(QRCodeService qrCodeService, QRCodeConfig qrCodeConfig, ObjectMapper objectMapper) {
+        this.qrCodeService = qrCodeService;
+        this.config = qrCodeConfig.getCache();
+        this.objectMapper = objectMapper;
+        QRCodeConfig.Cache.OffHeap offHeap = config.getOffHeap();
+        this.offHeapCache = offHeap.isEnabled() && config.isEnabled()
+                ? new OffHeapSlabStore<>(offHeap.getMaxBytes(), offHeap.getSlabBytes(), offHeap.getPageBytes())
+                : null;
+        this.mainCache = offHeapCache == null && config.isEnabled() ? new ByteLruCache<>(config.getMaxBytes()) : null;
+        this.hotCache = new ByteLruCache<>(config.getHotMaxBytes());
+        this.self = normalize(config.getSelfUrl());
+
+        List<String> members = new ArrayList<>();
+        config.getPeers().stream().map(PeerRenderCache::normalize).filter(StringUtils::hasText)
+                .forEach(members::add);
+        if (!members.isEmpty() && StringUtils.hasText(self) && !members.contains(self)) {
+            members.add(self);
+        }
+        this.ring = new ConsistentHashRing(members, config.getVirtualNodes());
+        this.memberHosts = members.stream().map(member -> URI.create(member).getHost()).filter(StringUtils::hasText)
+                .distinct().toList();
+        this.httpClient = members.isEmpty() ? null
+                : HttpClient.newBuilder().connectTimeout(config.getPeerTimeout()).build();
+
+        resolveMembers();
+        long resolveMillis = config.getPeerResolveInterval().toMillis();
+        if (!memberHosts.isEmpty() && resolveMillis > 0) {
+            this.memberResolver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "render-cache-resolver");
+                thread.setDaemon(true);
+                return thread;
+            });
+            memberResolver.scheduleWithFixedDelay(this::resolveMembers, resolveMillis, resolveMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.memberResolver = null;
+        }
+
+        if (config.isEnabled()) {
+            log.info("Render cache enabled: self={}, peers={}, maxBytes={}, hotMaxBytes={}, offHeap={}",
+                    self, members, offHeap.isEnabled() ? offHeap.getMaxBytes() : config.getMaxBytes(),
+                    config.getHotMaxBytes(), offHeap.isEnabled());
+        }
+    }
+
+    /**
+     * Returns the rendered bytes for the key from the cache, the owning peer or a local render
+     *
+     * @throws IllegalArgumentException   if the render parameters are invalid
+     * @throws QRCodeGenerationException  if rendering fails
+     */
+    public byte[] get(RenderKey key) {
+        try (RenderOutput output = getOutput(key)) {
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Like get, for response bodies: output this node owns is served from
+     * off-heap memory when that is enabled; close it after writing
+     *
+     * @throws IllegalArgumentException   if the render parameters are invalid
+     * @throws QRCodeGenerationException  if rendering fails
+     */
+    public RenderOutput getOutput(RenderKey key) {
+        if (!config.isEnabled()) {
+            return RenderOutput.of(render(key));
+        }
+
+        String owner = ring.nodeFor(key.id());
+        if (owner == null || owner.equals(self)) {
+            return getLocalOutput(key);
+        }
+
+        byte[] hot = hotCache.get(key);
+        if (hot != null) {
+            hits.increment();
+            return RenderOutput.of(hot);
+        }
+
+        return RenderOutput.of(singleFlight(key, () -> {
+            byte[] bytes = fetchFromPeer(owner, key);
+            if (bytes == null) {
+                bytes = render(key);
+            }
+            hotCache.put(key, bytes);
+            return bytes;
+        }));
+    }
+
+    /**
+     * Returns the bytes from this node's main cache, rendering on a miss.
+     * Used for keys this node owns and for requests from peers.
+     */
+    public byte[] getLocal(RenderKey key) {
+        try (RenderOutput output = getLocalOutput(key)) {
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Like getLocal, without copying off-heap output onto the heap; close it
+     * after writing. Renders straight through when the cache is disabled.
+     */
+    public RenderOutput getLocalOutput(RenderKey key) {
+        if (!config.isEnabled()) {
+            return RenderOutput.of(render(key));
+        }
+        if (offHeapCache != null) {
+            OffHeapSlabStore.Lease lease = offHeapCache.lease(key);
+            if (lease != null) {
+                hits.increment();
+                return RenderOutput.of(lease);
+            }
+            // A fresh render is served from the heap copy; later hits come from direct memory
+            return RenderOutput.of(singleFlight(key, () -> {
+                byte[] bytes = render(key);
+                offHeapCache.put(key, bytes);
+                return bytes;
+            }));
+        }
+
+        byte[] cached = mainCache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return RenderOutput.of(cached);
+        }
+
+        return RenderOutput.of(singleFlight(key, () -> {
+            byte[] bytes = render(key);
+            mainCache.put(key, bytes);
+            return bytes;
+        }));
+    }
+
+    /**
+     * Whether a request came from one of the ring's members; a lookup in
+     * their pre-resolved addresses, so it never waits on DNS
+     */
+    public boolean isMemberAddress(InetAddress address) {
+        return address != null && memberAddresses.contains(address);
+    }
+
+    /**
+     * Resolves the members' host names; a host whose lookup fails keeps the
+     * addresses it last resolved to
+     */
+    void resolveMembers() {
+        Set<InetAddress> addresses = new HashSet<>();
+        for (String host : memberHosts) {
+            try {
+                resolvedHosts.put(host, Set.copyOf(Arrays.asList(InetAddress.getAllByName(host))));
+            } catch (UnknownHostException e) {
+                log.warn("Render cache peer host {} does not resolve", host);
+            }
+            addresses.addAll(resolvedHosts.getOrDefault(host, Set.of()));
+        }
+        memberAddresses = Set.copyOf(addresses);
+    }
+
+    /**
+     * Cache counters and sizes for the debug endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("self", self);
+        stats.put("hits", hits.sum());
+        stats.put("renders", renders.sum());
+        stats.put("peerFetches", peerFetches.sum());
+        stats.put("peerFailures", peerFailures.sum());
+        if (offHeapCache != null) {
+            stats.put("mainEntries", offHeapCache.size());
+            stats.put("mainBytes", offHeapCache.sizeInBytes());
+            stats.put("offHeapReservedBytes", offHeapCache.reservedBytes());
+        } else if (mainCache != null) {
+            stats.put("mainEntries", mainCache.size());
+            stats.put("mainBytes", mainCache.sizeInBytes());
+        }
+        stats.put("hotEntries", hotCache.size());
+        stats.put("hotBytes", hotCache.sizeInBytes());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        if (memberResolver != null) {
+            memberResolver.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the loader once for concurrent callers of the same key; they all
+     * get its result or its failure
+     */
+    byte[] singleFlight(RenderKey key, Supplier<byte[]> loader) {
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            byte[] bytes = loader.get();
+            mine.complete(bytes);
+            return bytes;
+        } catch (Throwable e) {
+            // Errors too, such as running out of memory on a large raster, or waiters block forever
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Fetches the key from its owner, or returns null so the caller renders locally
+     */
+    private byte[] fetchFromPeer(String peer, RenderKey key) {
+        Long downUntil = peerDownUntil.get(peer);
+        if (downUntil != null && System.currentTimeMillis() < downUntil) {
+            return null;
+        }
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(peer + PEER_PATH))
+                    .timeout(config.getPeerTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(key)))
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            if (response.statusCode() == 200) {
+                peerFetches.increment();
+                peerDownUntil.remove(peer);
+                return response.body();
+            }
+            if (response.statusCode() >= 500) {
+                markDown(peer, "HTTP " + response.statusCode());
+            }
+            // Client errors are reproduced by the local render, which throws the validation error
+            return null;
+
+        } catch (IOException e) {
+            markDown(peer, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void markDown(String peer, String reason) {
+        peerFailures.increment();
+        peerDownUntil.put(peer, System.currentTimeMillis() + config.getPeerRetryAfter().toMillis());
+        log.warn("Render cache peer {} unavailable ({}), rendering locally for {}", peer, reason,
+                config.getPeerRetryAfter());
+    }
+
+    private byte[] render(RenderKey key) {
+        renders.increment();
+        try {
+            return switch (key.format()) {
+                case PNG -> key.style() != null
+                        ? qrCodeService.generateQRCodeImageWithLogo(key.text(), key.width(), key.height(), false,
+                                key.style())
+                        : qrCodeService.generateQRCodeImage(key.text(), key.width(), key.height());
+                case PNG_LOGO -> qrCodeService.generateQRCodeImageWithLogo(key.text(), key.width(), key.height(),
+                        true, key.style());
+                case PDF -> key.style() != null
+                        ? qrCodeService.generateQRCodePDFWithLogo(key.text(), key.width(), key.height(), false,
+                                key.style())
+                        : qrCodeService.generateQRCodePDF(key.text(), key.width(), key.height());
+                case PDF_LOGO -> qrCodeService.generateQRCodePDFWithLogo(key.text(), key.width(), key.height(),
+                        true, key.style());
+                case PDF_TEMPLATE -> qrCodeService.generateTemplatePDF(key.text(), key.width(), key.height(), false);
+                case PDF_TEMPLATE_LOGO -> qrCodeService.generateTemplatePDF(key.text(), key.width(), key.height(),
+                        true);
+                case SVG -> qrCodeService.generateQRCodeSVG(key.text(), key.width(), key.height(), false,
+                        key.style());
+                case SVG_LOGO -> qrCodeService.generateQRCodeSVG(key.text(), key.width(), key.height(), true,
+                        key.style());
+            };
+        } catch (WriterException | DocumentException | IOException e) {
+            throw new QRCodeGenerationException("Failed to render " + key.format() + " QR code", e);
+        }
+    }
+
+    private static String normalize(String url) {
+        if (!StringUtils.hasText(url)) {
+            return "";
+        }
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,60 @@
+package com.zing.zing.cache;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.zing.zing.reactive.ReactiveRenderer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of RenderCachePeerController, active with the
+ * reactive profile, so servlet and reactive nodes can share one ring
+ * Mapped only when peers are configured, and only answers ring members.
+ */
+@RestController
+@RequestMapping("/internal/v1/cache")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Conditional(RenderCachePeersCondition.class)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveRenderCachePeerController {
+
+    private final PeerRenderCache renderCache;
+
+    private final ReactiveRenderer reactiveRenderer;
+
+    /**
+     * Returns the rendered bytes for the key from this node's main cache
+     */
+    @PostMapping(value = "/render", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> render(@RequestBody RenderKey key, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        // Runs on the event loop: a lookup in the pre-resolved member addresses, never a DNS query
+        if (remote == null || !renderCache.isMemberAddress(remote.getAddress())) {
+            log.warn("Rejected render cache request from {}, not a configured peer", remote);
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return reactiveRenderer.call(() -> renderCache.getLocalOutput(key))
+                .map(output -> ResponseEntity.ok().contentLength(output.length())
+                        .body(reactiveRenderer.stream(output, response.bufferFactory())))
+                .onErrorResume(error -> ReactiveRenderer.failure(error, key.format() + " for peer"));
+    }
+}
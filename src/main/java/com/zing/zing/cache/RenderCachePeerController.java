@@ -0,0 +1,66 @@
+package com.zing.zing.cache;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.zing.zing.exception.QRCodeGenerationException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Peer-to-peer endpoint of the render cache
+ * Serves keys this node owns to the other nodes; not meant for clients.
+ * Mapped only when peers are configured, and only answers ring members.
+ */
+@RestController
+@RequestMapping("/internal/v1/cache")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Conditional(RenderCachePeersCondition.class)
+@RequiredArgsConstructor
+@Slf4j
+public class RenderCachePeerController {
+
+    private final PeerRenderCache renderCache;
+
+    /**
+     * Returns the rendered bytes for the key from this node's main cache
+     */
+    @PostMapping(value = "/render", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<RenderOutput> render(@RequestBody RenderKey key, HttpServletRequest request) {
+        if (!isMember(request.getRemoteAddr())) {
+            log.warn("Rejected render cache request from {}, not a configured peer", request.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(renderCache.getLocalOutput(key));
+        } catch (IllegalArgumentException e) {
+            log.debug("Invalid render key from peer: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (QRCodeGenerationException e) {
+            log.error("Error rendering {} for peer", key.format(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private boolean isMember(String remoteAddress) {
+        try {
+            // A literal address, so no lookup happens here
+            return renderCache.isMemberAddress(InetAddress.getByName(remoteAddress));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.zing.zing.cache;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.StringUtils;
+
+/**
+ * Matches when the render cache is enabled with at least one peer
+ * The peer endpoint renders arbitrary keys, so it is only mapped on nodes
+ * that are part of a ring; qrcode.cache.peers is blank by default.
+ */
+class RenderCachePeersCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Binder binder = Binder.get(context.getEnvironment());
+        if (!binder.bind("qrcode.cache.enabled", Boolean.class).orElse(false)) {
+            return ConditionOutcome.noMatch("qrcode.cache.enabled is false");
+        }
+        List<String> peers = binder.bind("qrcode.cache.peers", Bindable.listOf(String.class)).orElse(List.of());
+        if (peers.stream().noneMatch(StringUtils::hasText)) {
+            return ConditionOutcome.noMatch("qrcode.cache.peers is empty");
+        }
+        return ConditionOutcome.match("render cache peers configured");
+    }
+}
@@ -0,0 +1,47 @@
+package com.zing.zing.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies one rendered output: format, payload, requested dimensions and
+ * style name, null for the plain code
+ */
+public record RenderKey(Format format, String text, int width, int height, String style) {
+
+    public RenderKey(Format format, String text, int width, int height) {
+        this(format, text, width, height, null);
+    }
+
+    public enum Format {
+        PNG,
+        PNG_LOGO,
+        PDF,
+        PDF_LOGO,
+        /** PDF assembled by the template engine whatever qrcode.pdf.engine says */
+        PDF_TEMPLATE,
+        PDF_TEMPLATE_LOGO,
+        SVG,
+        SVG_LOGO
+    }
+
+    /**
+     * Stable content hash of the key, used for ring placement and logs
+     */
+    public String id() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((format + "|" + width + "x" + height + "|").getBytes(StandardCharsets.UTF_8));
+            if (style != null) {
+                // Plain keys keep the hashes, and so the ring placement, they had before styles
+                digest.update(("style=" + style + "|").getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
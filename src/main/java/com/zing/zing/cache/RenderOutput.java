@@ -0,0 +1,71 @@
+package com.zing.zing.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Rendered bytes on the heap or leased from the off-heap store
+ * Controllers return it as the response body; RenderOutputHttpMessageConverter
+ * writes it and closes it, so off-heap output reaches the response without
+ * being copied onto the heap first. The reactive endpoints stream it in
+ * slices instead.
+ */
+public final class RenderOutput implements AutoCloseable {
+
+    private final byte[] bytes;
+    private final OffHeapSlabStore.Lease lease;
+
+    private RenderOutput(byte[] bytes, OffHeapSlabStore.Lease lease) {
+        this.bytes = bytes;
+        this.lease = lease;
+    }
+
+    public static RenderOutput of(byte[] bytes) {
+        return new RenderOutput(bytes, null);
+    }
+
+    static RenderOutput of(OffHeapSlabStore.Lease lease) {
+        return new RenderOutput(null, lease);
+    }
+
+    public int length() {
+        return lease != null ? lease.length() : bytes.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (lease != null) {
+            lease.writeTo(out);
+        } else {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Read-only view of up to maxLength bytes from offset; off-heap slices end
+     * at a page boundary, so a slice may be shorter. Valid until closed.
+     */
+    public ByteBuffer slice(int offset, int maxLength) {
+        if (lease != null) {
+            return lease.slice(offset, maxLength);
+        }
+        if (offset < 0 || offset >= bytes.length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " outside output of " + bytes.length);
+        }
+        return ByteBuffer.wrap(bytes, offset, Math.min(maxLength, bytes.length - offset)).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * The bytes as an array; a copy for off-heap output
+     */
+    public byte[] toByteArray() {
+        return lease != null ? lease.toByteArray() : bytes;
+    }
+
+    @Override
+    public void close() {
+        if (lease != null) {
+            lease.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.zing.zing.cache;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes RenderOutput response bodies straight from where they are stored
+ * and closes them afterwards; write-only
+ */
+public class RenderOutputHttpMessageConverter extends AbstractHttpMessageConverter<RenderOutput> {
+
+    public RenderOutputHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RenderOutput.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected RenderOutput readInternal(Class<? extends RenderOutput> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("RenderOutput cannot be read", inputMessage);
+    }
+
+    @Override
+    protected MediaType getDefaultContentType(RenderOutput output) {
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    @Override
+    protected Long getContentLength(RenderOutput output, MediaType contentType) {
+        return (long) output.length();
+    }
+
+    @Override
+    protected void writeInternal(RenderOutput output, HttpOutputMessage outputMessage) throws IOException {
+        try (output) {
+            output.writeTo(outputMessage.getBody());
+        }
+    }
+}
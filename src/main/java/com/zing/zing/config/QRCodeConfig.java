@@ -1,9 +1,19 @@
 package com.zing.zing.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import com.zing.zing.render.QRStyle;
+
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Configuration properties for QR Code generation
@@ -17,6 +27,31 @@ public class QRCodeConfig {
 
     private Limits limits = new Limits();
 
+    private Encoding encoding = new Encoding();
+
+    private Templates templates = new Templates();
+
+    private Startup startup = new Startup();
+
+    private Render render = new Render();
+
+    private Pdf pdf = new Pdf();
+
+    private Cache cache = new Cache();
+
+    private Pool pool = new Pool();
+
+    private Degrade degrade = new Degrade();
+
+    private Diagnostics diagnostics = new Diagnostics();
+
+    private Payloads payloads = new Payloads();
+
+    private Reactive reactive = new Reactive();
+
+    /** Named styles selectable per request with style=<name> */
+    private Map<String, Style> styles = new LinkedHashMap<>();
+
     @Data
     public static class Dimensions {
         private int width = 300;
@@ -29,4 +64,177 @@ public class QRCodeConfig {
         private int maxSize = 2000;
         private int maxTextLength = 4000;
     }
+
+    @Data
+    public static class Encoding {
+        /** Use minimal mixed-mode segmentation to get the smallest QR version */
+        private boolean compact = true;
+    }
+
+    @Data
+    public static class Templates {
+        /** Cache pre-rendered function patterns per QR version and output size */
+        private boolean enabled = true;
+        private long maxBytes = 64L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Startup {
+        /** Load Java2D, fonts, ImageIO, ZXing and iText before the first request */
+        private boolean warmUp = true;
+    }
+
+    @Data
+    public static class Render {
+        /** Compositing engine for logo renders */
+        private Engine engine = Engine.GRAPHICS2D;
+        private long logoCacheMaxBytes = 16L * 1024 * 1024;
+        /** Scale and blend logos with jdk.incubator.vector kernels (array engine) */
+        private boolean simd = false;
+        /** Bound on pre-rendered style sprites, kept per style and module size */
+        private long styleCacheMaxBytes = 16L * 1024 * 1024;
+        /** PNG writer for QR rasters; the encoders' output bytes differ */
+        private PngWriter pngWriter = PngWriter.IMAGEIO;
+
+        public enum Engine {
+            /** Java2D Graphics2D drawing */
+            GRAPHICS2D,
+            /** Direct writes into the raster's pixel array */
+            ARRAY
+        }
+
+        public enum PngWriter {
+            /** ImageIO's PNG writer */
+            IMAGEIO,
+            /** PngEncoder: Up filter, deflate level 6, per-thread rows and deflater */
+            POOLED
+        }
+    }
+
+    @Data
+    public static class Pdf {
+        /** How single-code PDFs are assembled */
+        private Engine engine = Engine.ITEXT;
+
+        public enum Engine {
+            /** iText Document with the PNG embedded */
+            ITEXT,
+            /** Prebuilt page template with the module matrix spliced in */
+            TEMPLATE
+        }
+    }
+
+    @Data
+    public static class Cache {
+        /** Cache rendered bytes, sharded across peers by consistent hashing */
+        private boolean enabled = false;
+        /** Bound for keys this node owns */
+        private long maxBytes = 64L * 1024 * 1024;
+        /** Bound for copies of keys fetched from their owning peer */
+        private long hotMaxBytes = 8L * 1024 * 1024;
+        /** Base URL other peers use to reach this node, e.g. http://10.0.0.1:8080 */
+        private String selfUrl = "";
+        /** Base URLs of all peers; may include selfUrl */
+        private List<String> peers = new ArrayList<>();
+        private Duration peerTimeout = Duration.ofSeconds(2);
+        /** How long an unreachable peer is skipped before it is tried again */
+        private Duration peerRetryAfter = Duration.ofSeconds(10);
+        /** How often peer host names are resolved again for the peer endpoint; 0 resolves them once */
+        private Duration peerResolveInterval = Duration.ofMinutes(1);
+        private int virtualNodes = 64;
+        private OffHeap offHeap = new OffHeap();
+
+        @Data
+        public static class OffHeap {
+            /** Keep keys this node owns in direct memory instead of on the heap; replaces max-bytes */
+            private boolean enabled = false;
+            /** Bound on reserved direct memory; also needs -XX:MaxDirectMemorySize if above the heap size */
+            private long maxBytes = 256L * 1024 * 1024;
+            private int slabBytes = 8 * 1024 * 1024;
+            private int pageBytes = 4 * 1024;
+        }
+    }
+
+    @Data
+    public static class Pool {
+        /** Reuse output rasters, encode buffers and PNG scratch rows across renders */
+        private boolean enabled = true;
+        /** Bound on idle pooled rasters; a 2000x2000 RGB raster is 16MB */
+        private long maxRasterBytes = 64L * 1024 * 1024;
+        private int bufferStripes = 16;
+        /** Buffers grown beyond this are not returned to the pool */
+        private long maxBufferBytes = 4L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Degrade {
+        /** Serve cheaper codes while render load is above the thresholds */
+        private boolean enabled = false;
+        private Rule reduced = new Rule(32, Duration.ofMillis(250), 600, 100, true);
+        private Rule minimal = new Rule(96, Duration.ofSeconds(1), 300, 100, true);
+        /** A level is left once load is below this fraction of its thresholds... */
+        private double recoveryRatio = 0.5;
+        /** ...for this long */
+        private Duration recoveryDelay = Duration.ofSeconds(10);
+
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Rule {
+            /** Entered when this many renders are in flight... */
+            private int inFlight;
+            /** ...or when the average render latency exceeds this */
+            private Duration latency;
+            /** PNG sizes are clamped to this, never below qrcode.limits.min-size */
+            private int maxSize;
+            /** PNG sizes are rounded down to a multiple of this so variants are shared in caches */
+            private int sizeStep;
+            /** PDFs are assembled by the template engine at the requested size */
+            private boolean templatePdf;
+        }
+    }
+
+    @Data
+    public static class Diagnostics {
+        /** Time render stages for JFR events and the slow-render recorder */
+        private boolean enabled = true;
+        /** Slowest renders kept per interval */
+        private int slowRenders = 10;
+        private Duration slowRenderInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Payloads {
+        /** Registered payloads kept in memory, least recently used evicted first */
+        private int maxEntries = 10_000;
+        /**
+         * Directory payloads are also written to and reloaded from; empty keeps them in memory only,
+         * so IDs expire once evicted or on restart
+         */
+        private String directory = "";
+        /** Bound on payload files in the directory; registrations beyond it are refused */
+        private int maxFiles = 100_000;
+        /** How long clients and CDNs may reuse a rendered payload before revalidating its ETag */
+        private Duration maxAge = Duration.ofDays(1);
+    }
+
+    @Data
+    public static class Reactive {
+        /** Threads rendering for the reactive endpoints; 0 uses the number of available processors */
+        private int renderThreads = 0;
+        /** Renders waiting for a thread beyond which requests get 503 */
+        private int queuedRenders = 256;
+        /** Size of the response buffers rendered output is streamed in */
+        private int chunkBytes = 8 * 1024;
+    }
+
+    @Data
+    public static class Style {
+        /** Dark module colour, #RRGGBB */
+        private String foreground = "#000000";
+        /** Light module colour, #RRGGBB; must contrast with the foreground by at least 3:1 */
+        private String background = "#FFFFFF";
+        private QRStyle.ModuleShape modules = QRStyle.ModuleShape.SQUARE;
+        private QRStyle.FinderShape finders = QRStyle.FinderShape.SQUARE;
+    }
 }
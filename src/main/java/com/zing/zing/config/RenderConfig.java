@@ -0,0 +1,28 @@
+package com.zing.zing.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zing.zing.cache.RenderOutputHttpMessageConverter;
+import com.zing.zing.render.PixelKernels;
+import com.zing.zing.render.PixelKernelsFactory;
+
+/**
+ * Rendering infrastructure beans selected from configuration
+ */
+@Configuration
+public class RenderConfig {
+
+    @Bean
+    public PixelKernels pixelKernels(QRCodeConfig qrCodeConfig) {
+        return PixelKernelsFactory.create(qrCodeConfig.getRender().isSimd());
+    }
+
+    /**
+     * Picked up by Spring Boot and placed ahead of the default converters
+     */
+    @Bean
+    public RenderOutputHttpMessageConverter renderOutputHttpMessageConverter() {
+        return new RenderOutputHttpMessageConverter();
+    }
+}
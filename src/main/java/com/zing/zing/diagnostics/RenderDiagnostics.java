@@ -0,0 +1,193 @@
+package com.zing.zing.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.config.QRCodeConfig;
+
+/**
+ * Per-render tracing for QRCodeService
+ * A trace spans one public render call on the current thread; nested render
+ * calls join the outer trace. Each stage emits a RenderStageEvent and each
+ * trace a RenderEvent, which cost next to nothing unless a JFR recording is
+ * running. Finished traces are offered to the slow-render recorder.
+ *
+ * <pre>
+ * try (RenderDiagnostics.Trace trace = diagnostics.trace("png", text, width, height)) {
+ *     try (RenderDiagnostics.Stage stage = diagnostics.stage(RenderStage.ENCODE)) {
+ *         ...
+ *     }
+ *     trace.complete(result.length);
+ * }
+ * </pre>
+ */
+@Component
+public class RenderDiagnostics {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private final QRCodeConfig.Diagnostics config;
+    private final SlowRenderRecorder slowRenders;
+
+    private final Trace disabledTrace = new Trace(null, null, 0, 0, 0);
+    private final Stage disabledStage = new Stage(null, null, 0);
+
+    public RenderDiagnostics(QRCodeConfig qrCodeConfig) {
+        this.config = qrCodeConfig.getDiagnostics();
+        this.slowRenders = new SlowRenderRecorder(config.getSlowRenders(), config.getSlowRenderInterval());
+    }
+
+    /**
+     * Starts a trace on this thread, or joins the one already running
+     */
+    public Trace trace(String operation, String text, int width, int height) {
+        if (!config.isEnabled()) {
+            return disabledTrace;
+        }
+        Trace current = CURRENT.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        Trace trace = new Trace(this, operation, text != null ? text.length() : 0, width, height);
+        CURRENT.set(trace);
+        trace.event.begin();
+        return trace;
+    }
+
+    /**
+     * Starts a stage of the current trace
+     */
+    public Stage stage(RenderStage stage) {
+        if (!config.isEnabled()) {
+            return disabledStage;
+        }
+        Stage timed = new Stage(CURRENT.get(), stage, System.nanoTime());
+        timed.event.begin();
+        return timed;
+    }
+
+    /**
+     * Slowest renders of the current and previous interval
+     */
+    public Map<String, Object> slowRenders() {
+        return slowRenders.snapshot(System.currentTimeMillis());
+    }
+
+    private void finish(Trace trace, long nanos) {
+        CURRENT.remove();
+
+        RenderEvent event = trace.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = trace.operation;
+            event.textLength = trace.textLength;
+            event.width = trace.width;
+            event.height = trace.height;
+            event.bytes = trace.bytes;
+            event.failed = !trace.completed;
+            event.commit();
+        }
+
+        slowRenders.offer(nanos, System.currentTimeMillis(), () -> new SlowRenderRecorder.SlowRender(
+                trace.operation, trace.textLength, trace.width, trace.height, trace.bytes, !trace.completed,
+                System.currentTimeMillis(), nanos / 1_000_000.0, List.copyOf(trace.stages)));
+    }
+
+    /**
+     * One render on the current thread; close it in a finally block
+     */
+    public static final class Trace implements AutoCloseable {
+
+        private final RenderDiagnostics owner;
+        private final String operation;
+        private final int textLength;
+        private final int width;
+        private final int height;
+        private final long startNanos = System.nanoTime();
+        private final RenderEvent event = new RenderEvent();
+        private final List<SlowRenderRecorder.StageTiming> stages = new ArrayList<>(6);
+        private int depth = 1;
+        private long bytes;
+        private boolean completed;
+
+        private Trace(RenderDiagnostics owner, String operation, int textLength, int width, int height) {
+            this.owner = owner;
+            this.operation = operation;
+            this.textLength = textLength;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Marks the render successful with its output size; ignored in nested
+         * calls, the outermost call reports the output
+         */
+        public void complete(long outputBytes) {
+            if (depth == 1) {
+                bytes = outputBytes;
+                completed = true;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (owner == null || --depth > 0) {
+                return;
+            }
+            owner.finish(this, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * One timed stage; close it in a finally block
+     */
+    public static final class Stage implements AutoCloseable {
+
+        private final Trace trace;
+        private final RenderStage stage;
+        private final long startNanos;
+        private final RenderStageEvent event = new RenderStageEvent();
+        private long bytes;
+
+        private Stage(Trace trace, RenderStage stage, long startNanos) {
+            this.trace = trace;
+            this.stage = stage;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Output size of the stage
+         */
+        public void bytes(long outputBytes) {
+            bytes = outputBytes;
+        }
+
+        @Override
+        public void close() {
+            if (stage == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - startNanos;
+            if (trace != null) {
+                trace.stages.add(new SlowRenderRecorder.StageTiming(stage.label(), nanos / 1_000_000.0, bytes));
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = trace != null ? trace.operation : "";
+                event.stage = stage.label();
+                if (trace != null) {
+                    event.textLength = trace.textLength;
+                    event.width = trace.width;
+                    event.height = trace.height;
+                }
+                event.bytes = bytes;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.zing.zing.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a whole render; its stages are RenderStageEvents on the
+ * same thread within its duration
+ */
+@Name("com.zing.Render")
+@Label("QR Render")
+@Category({ "Zing", "QR Render" })
+@Description("A complete QR code render with its parameters and output size")
+@StackTrace(false)
+final class RenderEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Text Length")
+    int textLength;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,27 @@
+package com.zing.zing.diagnostics;
+
+import java.util.Locale;
+
+/**
+ * Timed stages of a QR code render
+ */
+public enum RenderStage {
+    /** ZXing module encoding */
+    ENCODE,
+    /** Module raster from the cached template */
+    RASTER,
+    /** Loading the logo from the classpath */
+    LOGO_LOAD,
+    /** Drawing the logo backplate and logo onto the raster */
+    COMPOSITE,
+    /** PNG encoding */
+    PNG_ENCODE,
+    /** iText document or template PDF assembly */
+    PDF_ASSEMBLY,
+    /** SVG document assembly */
+    SVG_WRITE;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.zing.zing.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one stage of a render
+ */
+@Name("com.zing.RenderStage")
+@Label("QR Render Stage")
+@Category({ "Zing", "QR Render" })
+@Description("One stage of a QR code render: encode, raster, logo load, composite, PNG or PDF")
+@StackTrace(false)
+final class RenderStageEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Text Length")
+    int textLength;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Bytes")
+    @Description("Output size of the stage, 0 if it produces no bytes")
+    @DataAmount
+    long bytes;
+}
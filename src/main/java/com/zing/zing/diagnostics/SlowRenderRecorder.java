@@ -0,0 +1,101 @@
+package com.zing.zing.diagnostics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the slowest N renders of the current interval and of the previous one
+ * A render faster than all of the kept ones is rejected with one comparison
+ * against a volatile copy of the threshold, without taking the lock or
+ * building its entry. Payload text is not kept, only its length.
+ */
+class SlowRenderRecorder {
+
+    private static final Comparator<SlowRender> BY_DURATION = Comparator.comparingDouble(SlowRender::totalMillis);
+
+    private final int capacity;
+    private final long intervalMillis;
+
+    private PriorityQueue<SlowRender> current;
+    private List<SlowRender> previous = List.of();
+    private long intervalStart;
+
+    /** Fastest kept render while the current interval is full, else negative infinity */
+    private volatile double thresholdMillis = Double.NEGATIVE_INFINITY;
+    /** When the current interval ends; 0 before the first render */
+    private volatile long intervalEnd;
+
+    SlowRenderRecorder(int capacity, Duration interval) {
+        this.capacity = Math.max(1, capacity);
+        this.intervalMillis = interval.toMillis();
+        this.current = new PriorityQueue<>(this.capacity, BY_DURATION);
+    }
+
+    void offer(long nanos, long nowMillis, Supplier<SlowRender> entry) {
+        double millis = nanos / 1_000_000.0;
+        if (millis <= thresholdMillis && nowMillis < intervalEnd) {
+            return;
+        }
+        synchronized (this) {
+            roll(nowMillis);
+            if (current.size() >= capacity) {
+                if (millis <= current.peek().totalMillis()) {
+                    return;
+                }
+                current.poll();
+            }
+            current.add(entry.get());
+            updateThreshold();
+        }
+    }
+
+    synchronized Map<String, Object> snapshot(long nowMillis) {
+        roll(nowMillis);
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("intervalSeconds", intervalMillis / 1000);
+        snapshot.put("intervalStart", Instant.ofEpochMilli(intervalStart).toString());
+        snapshot.put("current", slowestFirst(current));
+        snapshot.put("previous", previous);
+        return snapshot;
+    }
+
+    private void roll(long nowMillis) {
+        if (intervalStart == 0) {
+            intervalStart = nowMillis;
+        } else if (nowMillis - intervalStart >= intervalMillis) {
+            // Anything older than one full interval is dropped rather than shown as previous
+            previous = nowMillis - intervalStart < 2 * intervalMillis ? slowestFirst(current) : List.of();
+            current = new PriorityQueue<>(capacity, BY_DURATION);
+            intervalStart = nowMillis - (nowMillis - intervalStart) % intervalMillis;
+            updateThreshold();
+        }
+        intervalEnd = intervalStart + intervalMillis;
+    }
+
+    private void updateThreshold() {
+        thresholdMillis = current.size() >= capacity ? current.peek().totalMillis() : Double.NEGATIVE_INFINITY;
+    }
+
+    private static List<SlowRender> slowestFirst(PriorityQueue<SlowRender> renders) {
+        List<SlowRender> sorted = new ArrayList<>(renders);
+        sorted.sort(BY_DURATION.reversed());
+        return sorted;
+    }
+
+    /**
+     * Parameters and stage breakdown of one render
+     */
+    record SlowRender(String operation, int textLength, int width, int height, long bytes, boolean failed,
+            long finishedAt, double totalMillis, List<StageTiming> stages) {
+    }
+
+    record StageTiming(String stage, double millis, long bytes) {
+    }
+}
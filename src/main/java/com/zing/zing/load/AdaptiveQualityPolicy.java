@@ -0,0 +1,200 @@
+package com.zing.zing.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Steps render quality down while the service is overloaded
+ * Load is the number of renders in flight and a moving average of render
+ * latency. Crossing a level's thresholds enters that level at once; a level
+ * is left one step at a time, only after load has stayed below
+ * recovery-ratio of its thresholds for recovery-delay, so quality does not
+ * flap around a threshold. With qrcode.degrade.enabled off, renders only
+ * count towards in flight; no latency is recorded and no lock is taken.
+ */
+@Component
+@Slf4j
+public class AdaptiveQualityPolicy {
+
+    public static final String QUALITY_HEADER = "X-QR-Quality";
+
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final QRCodeConfig qrCodeConfig;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Completed renders whose latency went into the average */
+    private final AtomicLong samples = new AtomicLong();
+    /** Moving average of render latency in nanoseconds, as double bits */
+    private final AtomicLong averageLatencyBits = new AtomicLong(Double.doubleToRawLongBits(0));
+    private volatile long lastCompletionNanos;
+
+    private QualityLevel level = QualityLevel.FULL;
+    private long calmSinceNanos = -1;
+
+    public AdaptiveQualityPolicy(QRCodeConfig qrCodeConfig) {
+        this.qrCodeConfig = qrCodeConfig;
+    }
+
+    /**
+     * Admits one render and picks its quality level; close the admission when
+     * the render finishes
+     */
+    public Admission admit() {
+        int active = inFlight.incrementAndGet();
+        if (!qrCodeConfig.getDegrade().isEnabled()) {
+            return new Admission(QualityLevel.FULL, false, 0);
+        }
+        return new Admission(evaluate(active, System.nanoTime()), true, System.nanoTime());
+    }
+
+    /**
+     * Current level, load and thresholds for the debug endpoint
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", qrCodeConfig.getDegrade().isEnabled());
+        stats.put("level", level.headerValue());
+        stats.put("inFlight", inFlight.get());
+        stats.put("averageLatencyMs", averageLatencyNanos() / 1_000_000);
+        return stats;
+    }
+
+    synchronized QualityLevel evaluate(int active, long now) {
+        QRCodeConfig.Degrade config = qrCodeConfig.getDegrade();
+        // Without recent completions the average is stale; an idle service is not slow
+        double latency = samples.get() == 0 || now - lastCompletionNanos > config.getRecoveryDelay().toNanos() ? 0
+                : averageLatencyNanos();
+
+        QualityLevel target = QualityLevel.FULL;
+        if (exceeds(config.getMinimal(), active, latency, 1.0)) {
+            target = QualityLevel.MINIMAL;
+        } else if (exceeds(config.getReduced(), active, latency, 1.0)) {
+            target = QualityLevel.REDUCED;
+        }
+
+        if (target.compareTo(level) > 0) {
+            log.warn("Render load high (in flight={}, avg latency={}ms), quality {} -> {}", active,
+                    Math.round(latency / 1_000_000), level.headerValue(), target.headerValue());
+            level = target;
+            calmSinceNanos = -1;
+        } else if (level != QualityLevel.FULL
+                && !exceeds(rule(level), active, latency, config.getRecoveryRatio())) {
+            if (calmSinceNanos < 0) {
+                calmSinceNanos = now;
+            } else if (now - calmSinceNanos >= config.getRecoveryDelay().toNanos()) {
+                QualityLevel restored = level.higher();
+                log.info("Render load back to normal, quality {} -> {}", level.headerValue(),
+                        restored.headerValue());
+                level = restored;
+                calmSinceNanos = level == QualityLevel.FULL ? -1 : now;
+            }
+        } else {
+            calmSinceNanos = -1;
+        }
+        return level;
+    }
+
+    private void complete(long startNanos) {
+        long now = System.nanoTime();
+        double latency = now - startNanos;
+        boolean first = samples.getAndIncrement() == 0;
+        averageLatencyBits.getAndUpdate(bits -> {
+            double average = Double.longBitsToDouble(bits);
+            return Double.doubleToRawLongBits(first ? latency : average + LATENCY_WEIGHT * (latency - average));
+        });
+        lastCompletionNanos = now;
+    }
+
+    private double averageLatencyNanos() {
+        return Double.longBitsToDouble(averageLatencyBits.get());
+    }
+
+    private static boolean exceeds(QRCodeConfig.Degrade.Rule rule, int active, double latencyNanos,
+            double ratio) {
+        return active > rule.getInFlight() * ratio || latencyNanos > rule.getLatency().toNanos() * ratio;
+    }
+
+    private QRCodeConfig.Degrade.Rule rule(QualityLevel quality) {
+        return quality == QualityLevel.MINIMAL ? qrCodeConfig.getDegrade().getMinimal()
+                : qrCodeConfig.getDegrade().getReduced();
+    }
+
+    /**
+     * One admitted render and the level it runs at
+     */
+    public final class Admission implements AutoCloseable {
+
+        private final QualityLevel level;
+        private final boolean timed;
+        private final long startNanos;
+        private boolean closed;
+
+        private Admission(QualityLevel level, boolean timed, long startNanos) {
+            this.level = level;
+            this.timed = timed;
+            this.startNanos = startNanos;
+        }
+
+        public QualityLevel level() {
+            return level;
+        }
+
+        /**
+         * Maps the requested render to the one served at this level. PNG sizes
+         * are clamped and rounded down; PDFs switch to the template engine at
+         * the requested size, or are clamped like PNGs if that is disabled or
+         * the PDF is styled, since the template engine cannot draw styles.
+         * SVGs cost the same at any size and are left alone. Sizes outside the
+         * configured limits are left for validation to reject.
+         */
+        public RenderKey apply(RenderKey key) {
+            RenderKey.Format format = key.format();
+            if (level == QualityLevel.FULL || format == RenderKey.Format.SVG || format == RenderKey.Format.SVG_LOGO) {
+                return key;
+            }
+
+            QRCodeConfig.Degrade.Rule rule = rule(level);
+            boolean pdf = format == RenderKey.Format.PDF || format == RenderKey.Format.PDF_LOGO;
+            if (pdf && rule.isTemplatePdf() && key.style() == null) {
+                return new RenderKey(format == RenderKey.Format.PDF ? RenderKey.Format.PDF_TEMPLATE
+                        : RenderKey.Format.PDF_TEMPLATE_LOGO, key.text(), key.width(), key.height());
+            }
+            return new RenderKey(format, key.text(), reduce(key.width(), rule), reduce(key.height(), rule),
+                    key.style());
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                inFlight.decrementAndGet();
+                if (timed) {
+                    complete(startNanos);
+                }
+            }
+        }
+
+        private int reduce(int size, QRCodeConfig.Degrade.Rule rule) {
+            QRCodeConfig.Limits limits = qrCodeConfig.getLimits();
+            if (size <= limits.getMinSize() || size > limits.getMaxSize()) {
+                return size;
+            }
+            int reduced = Math.min(size, rule.getMaxSize());
+            if (rule.getSizeStep() > 1) {
+                reduced -= reduced % rule.getSizeStep();
+            }
+            return Math.max(reduced, limits.getMinSize());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.zing.zing.load;
+
+import java.util.Locale;
+
+/**
+ * Render quality levels, from normal output to the cheapest acceptable code
+ */
+public enum QualityLevel {
+    /** Requested size and configured engines */
+    FULL,
+    /** Sizes clamped to the reduced rule, template PDFs */
+    REDUCED,
+    /** Sizes clamped toward the minimum, template PDFs */
+    MINIMAL;
+
+    /**
+     * Value reported in the X-QR-Quality response header
+     */
+    public String headerValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    QualityLevel higher() {
+        return this == FULL ? FULL : values()[ordinal() - 1];
+    }
+}
@@ -0,0 +1,213 @@
+package com.zing.zing.payload;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.zing.zing.cache.PeerRenderCache;
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.cache.RenderOutput;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.exception.QRCodeGenerationException;
+import com.zing.zing.load.AdaptiveQualityPolicy;
+import com.zing.zing.load.QualityLevel;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.render.QRStyleRegistry;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stored payloads with short, cacheable URLs
+ * A client registers its text and render options once and embeds
+ * /api/v1/qr/{id}.png (or .pdf, .svg) instead of passing the text on every
+ * request. The ID is a hash of the payload, but the bytes behind it also
+ * depend on server configuration (engines, styles, logo), so responses are
+ * cached for qrcode.payloads.max-age and then revalidated against an ETag
+ * that includes the render version.
+ */
+@RestController
+@RequestMapping("/api/v1/qr")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+public class PayloadController {
+
+    private final PayloadStore payloadStore;
+
+    private final QRCodeService qrCodeService;
+
+    private final PeerRenderCache renderCache;
+
+    private final AdaptiveQualityPolicy qualityPolicy;
+
+    private final QRCodeConfig qrCodeConfig;
+
+    private final QRStyleRegistry qrStyleRegistry;
+
+    /**
+     * Registers a payload and returns its ID and URLs
+     * Registering the same payload again returns the same ID.
+     *
+     * @param request Text (required), width and height (default from qrcode.defaults), logo flag and style
+     * @return 201 with the ID and the PNG, PDF and SVG URLs; Location points at the PNG. 507 when
+     *         the payload directory is full
+     */
+    @PostMapping(value = "/payloads", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, String>> registerPayload(@RequestBody PayloadRequest request) {
+        int width = request.getWidth() != null ? request.getWidth() : qrCodeConfig.getDefaults().getWidth();
+        int height = request.getHeight() != null ? request.getHeight() : qrCodeConfig.getDefaults().getHeight();
+
+        try {
+            // Validate once here so stored payloads always render
+            qrCodeService.validateQRCodeInput(request.getText(), width, height);
+            String style = qrStyleRegistry.find(request.getStyle()) != null ? request.getStyle() : null;
+
+            StoredPayload payload = new StoredPayload(request.getText(), width, height, request.isLogo(), style);
+            String id = payloadStore.register(payload);
+            log.info("Registered payload {}: text length={}, dimensions={}x{}, logo={}, style={}", id,
+                    payload.text().length(), width, height, payload.logo(), style);
+
+            Map<String, String> response = new LinkedHashMap<>();
+            response.put("id", id);
+            for (String format : new String[] { "png", "pdf", "svg" }) {
+                response.put(format, ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/v1/qr/{id}.{format}").buildAndExpand(id, format).toUriString());
+            }
+            return ResponseEntity.created(URI.create(response.get("png"))).body(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid payload: {}", e.getMessage());
+            Map<String, String> error = new LinkedHashMap<>();
+            error.put("error", "Invalid payload");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (PayloadStore.FullException e) {
+            log.warn("Payload not stored: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(full(e));
+        } catch (IOException e) {
+            log.error("Error storing payload", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Renders a stored payload
+     * Full-quality responses are cacheable for qrcode.payloads.max-age and
+     * carry an ETag of the ID, format and render version; while quality is
+     * degraded responses must be revalidated, so caches pick up the
+     * full-quality code once load drops.
+     *
+     * @param id     Payload ID returned at registration
+     * @param format png, pdf or svg
+     * @return 200 with the rendered code, 304 if the ETag matches, 404 for an unknown ID
+     */
+    @GetMapping("/{id:[A-Za-z0-9_-]+}.{format:png|pdf|svg}")
+    public ResponseEntity<RenderOutput> renderPayload(
+            @PathVariable String id,
+            @PathVariable String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        StoredPayload payload = payloadStore.find(id);
+        if (payload == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = etag(id, format, qrCodeService.renderVersion());
+        if (notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl(qrCodeConfig))
+                    .build();
+        }
+
+        try (AdaptiveQualityPolicy.Admission admission = qualityPolicy.admit()) {
+            RenderOutput output = renderCache.getOutput(admission.apply(new RenderKey(format(format, payload.logo()),
+                    payload.text(), payload.width(), payload.height(), payload.style())));
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(mediaType(format));
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=qrcode-" + id + "." + format);
+            headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, admission.level().headerValue());
+            if (admission.level() == QualityLevel.FULL) {
+                headers.setCacheControl(cacheControl(qrCodeConfig));
+                headers.setETag(etag);
+            } else {
+                headers.setCacheControl(CacheControl.noCache());
+            }
+
+            return new ResponseEntity<>(output, headers, HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Stored payload {} no longer valid: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (QRCodeGenerationException e) {
+            log.error("Error rendering stored payload {} as {}", id, format, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    static Map<String, String> full(PayloadStore.FullException e) {
+        Map<String, String> error = new LinkedHashMap<>();
+        error.put("error", "Payload store full");
+        error.put("message", e.getMessage());
+        return error;
+    }
+
+    static CacheControl cacheControl(QRCodeConfig qrCodeConfig) {
+        return CacheControl.maxAge(qrCodeConfig.getPayloads().getMaxAge()).cachePublic();
+    }
+
+    static String etag(String id, String format, String renderVersion) {
+        return "\"" + id + "." + format + "." + renderVersion + "\"";
+    }
+
+    static boolean notModified(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag));
+    }
+
+    static RenderKey.Format format(String format, boolean logo) {
+        return switch (format) {
+            case "pdf" -> logo ? RenderKey.Format.PDF_LOGO : RenderKey.Format.PDF;
+            case "svg" -> logo ? RenderKey.Format.SVG_LOGO : RenderKey.Format.SVG;
+            default -> logo ? RenderKey.Format.PNG_LOGO : RenderKey.Format.PNG;
+        };
+    }
+
+    static MediaType mediaType(String format) {
+        return switch (format) {
+            case "pdf" -> MediaType.APPLICATION_PDF;
+            case "svg" -> MediaType.valueOf("image/svg+xml");
+            default -> MediaType.IMAGE_PNG;
+        };
+    }
+
+    /**
+     * Body of a payload registration
+     */
+    @Data
+    public static class PayloadRequest {
+        private String text;
+        private Integer width;
+        private Integer height;
+        private boolean logo;
+        /** Name of a style from qrcode.styles; omitted for the plain code */
+        private String style;
+    }
+}
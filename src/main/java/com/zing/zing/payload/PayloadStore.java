@@ -0,0 +1,176 @@
+package com.zing.zing.payload;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registered payloads by content-hash ID
+ * Payloads are kept in a bounded LRU map. With a directory configured each
+ * payload is also written there as {id}.json and reloaded on a miss, so IDs
+ * survive restarts and evictions; without one an evicted ID is gone until
+ * the payload is registered again. Files are never deleted, so the directory
+ * holds at most max-files payloads and new ones are refused beyond that.
+ */
+@Component
+@Slf4j
+public class PayloadStore {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{16}");
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Map<String, StoredPayload> payloads;
+    private final int maxFiles;
+    private final AtomicInteger files = new AtomicInteger(-1);
+
+    public PayloadStore(QRCodeConfig qrCodeConfig, ObjectMapper objectMapper) {
+        QRCodeConfig.Payloads config = qrCodeConfig.getPayloads();
+        this.objectMapper = objectMapper;
+        this.directory = StringUtils.hasText(config.getDirectory()) ? Paths.get(config.getDirectory()) : null;
+        this.maxFiles = config.getMaxFiles();
+        int maxEntries = config.getMaxEntries();
+        this.payloads = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredPayload> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Registers the payload and returns its ID
+     *
+     * @throws IOException   if the payload cannot be written to the directory
+     * @throws FullException if the directory already holds max-files payloads
+     */
+    public String register(StoredPayload payload) throws IOException {
+        String id = payload.id();
+        synchronized (payloads) {
+            if (payloads.containsKey(id)) {
+                return id;
+            }
+        }
+
+        if (directory != null) {
+            write(id, payload);
+        }
+        synchronized (payloads) {
+            payloads.put(id, payload);
+        }
+        return id;
+    }
+
+    /**
+     * Payload registered under the ID, or null if unknown
+     */
+    public StoredPayload find(String id) {
+        if (!ID_PATTERN.matcher(id).matches()) {
+            return null;
+        }
+        synchronized (payloads) {
+            StoredPayload payload = payloads.get(id);
+            if (payload != null || directory == null) {
+                return payload;
+            }
+        }
+
+        StoredPayload loaded = read(id);
+        if (loaded != null) {
+            synchronized (payloads) {
+                payloads.put(id, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public int size() {
+        synchronized (payloads) {
+            return payloads.size();
+        }
+    }
+
+    private void write(String id, StoredPayload payload) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(id + ".json");
+        if (Files.exists(target)) {
+            return;
+        }
+        reserveFile();
+        boolean written = false;
+        // Write then rename, so a concurrent reader never sees a partial file
+        Path temp = Files.createTempFile(directory, id, ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), payload);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            written = true;
+        } finally {
+            Files.deleteIfExists(temp);
+            if (!written) {
+                files.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Counts one more payload file against max-files; the directory is
+     * counted once, on the first write
+     */
+    private void reserveFile() throws IOException {
+        if (files.get() < 0) {
+            try (Stream<Path> existing = Files.list(directory)) {
+                int count = (int) existing.filter(path -> path.getFileName().toString().endsWith(".json")).count();
+                files.compareAndSet(-1, count);
+            }
+        }
+        if (files.incrementAndGet() > maxFiles) {
+            files.decrementAndGet();
+            throw new FullException("Payload directory holds the maximum of " + maxFiles + " payloads");
+        }
+    }
+
+    private StoredPayload read(String id) {
+        Path file = directory.resolve(id + ".json");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            StoredPayload payload = objectMapper.readValue(file.toFile(), StoredPayload.class);
+            // Ignore files whose content does not hash to their name
+            return id.equals(payload.id()) ? payload : null;
+        } catch (IOException e) {
+            log.warn("Could not read stored payload {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Thrown when a new payload would exceed qrcode.payloads.max-files
+     */
+    public static class FullException extends IOException {
+
+        public FullException(String message) {
+            super(message);
+        }
+    }
+}
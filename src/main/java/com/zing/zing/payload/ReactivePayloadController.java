@@ -0,0 +1,142 @@
+package com.zing.zing.payload;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.load.AdaptiveQualityPolicy;
+import com.zing.zing.load.QualityLevel;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.reactive.ReactiveRenderer;
+import com.zing.zing.render.QRStyleRegistry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of PayloadController, active with the reactive profile
+ * Registration and lookups may touch the payload directory, so they run on
+ * the render pool like renders do.
+ */
+@RestController
+@RequestMapping("/api/v1/qr")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactivePayloadController {
+
+    private final PayloadStore payloadStore;
+
+    private final QRCodeService qrCodeService;
+
+    private final ReactiveRenderer reactiveRenderer;
+
+    private final QRCodeConfig qrCodeConfig;
+
+    private final QRStyleRegistry qrStyleRegistry;
+
+    /**
+     * Registers a payload and returns its ID and URLs
+     *
+     * @see PayloadController#registerPayload
+     */
+    @PostMapping(value = "/payloads", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Map<String, String>>> registerPayload(
+            @RequestBody PayloadController.PayloadRequest request, ServerHttpRequest httpRequest) {
+        int width = request.getWidth() != null ? request.getWidth() : qrCodeConfig.getDefaults().getWidth();
+        int height = request.getHeight() != null ? request.getHeight() : qrCodeConfig.getDefaults().getHeight();
+
+        return reactiveRenderer.call(() -> {
+            qrCodeService.validateQRCodeInput(request.getText(), width, height);
+            String style = qrStyleRegistry.find(request.getStyle()) != null ? request.getStyle() : null;
+
+            StoredPayload payload = new StoredPayload(request.getText(), width, height, request.isLogo(), style);
+            String id = payloadStore.register(payload);
+            log.info("Registered payload {}: text length={}, dimensions={}x{}, logo={}, style={}", id,
+                    payload.text().length(), width, height, payload.logo(), style);
+
+            Map<String, String> response = new LinkedHashMap<>();
+            response.put("id", id);
+            for (String format : new String[] { "png", "pdf", "svg" }) {
+                response.put(format, UriComponentsBuilder.fromUri(httpRequest.getURI())
+                        .replacePath(httpRequest.getPath().contextPath().value())
+                        .path("/api/v1/qr/{id}.{format}").replaceQuery(null)
+                        .buildAndExpand(id, format).toUriString());
+            }
+            return ResponseEntity.created(URI.create(response.get("png"))).body(response);
+        }).onErrorResume(IllegalArgumentException.class, e -> {
+            log.warn("Invalid payload: {}", e.getMessage());
+            Map<String, String> error = new LinkedHashMap<>();
+            error.put("error", "Invalid payload");
+            error.put("message", e.getMessage());
+            return Mono.just(ResponseEntity.badRequest().body(error));
+        }).onErrorResume(PayloadStore.FullException.class, e -> {
+            log.warn("Payload not stored: {}", e.getMessage());
+            return Mono.just(ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(PayloadController.full(e)));
+        }).onErrorResume(error -> ReactiveRenderer.failure(error, "payload registration"));
+    }
+
+    /**
+     * Renders a stored payload
+     *
+     * @see PayloadController#renderPayload
+     */
+    @GetMapping("/{id:[A-Za-z0-9_-]+}.{format:png|pdf|svg}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> renderPayload(
+            @PathVariable String id,
+            @PathVariable String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerHttpResponse response) {
+
+        String etag = PayloadController.etag(id, format, qrCodeService.renderVersion());
+        return reactiveRenderer.call(() -> payloadStore.find(id)).flatMap(payload -> {
+            if (PayloadController.notModified(ifNoneMatch, etag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                        .cacheControl(PayloadController.cacheControl(qrCodeConfig)).<Flux<DataBuffer>>build());
+            }
+
+            RenderKey key = new RenderKey(PayloadController.format(format, payload.logo()), payload.text(),
+                    payload.width(), payload.height(), payload.style());
+            return reactiveRenderer.render(key).map(rendered -> {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(PayloadController.mediaType(format));
+                headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=qrcode-" + id + "." + format);
+                headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, rendered.level().headerValue());
+                if (rendered.level() == QualityLevel.FULL) {
+                    headers.setCacheControl(PayloadController.cacheControl(qrCodeConfig));
+                    headers.setETag(etag);
+                } else {
+                    headers.setCacheControl(CacheControl.noCache());
+                }
+                headers.setContentLength(rendered.output().length());
+
+                return new ResponseEntity<>(reactiveRenderer.stream(rendered.output(), response.bufferFactory()),
+                        headers, HttpStatus.OK);
+            });
+        }).switchIfEmpty(Mono.fromSupplier(() -> ResponseEntity.notFound().build()))
+                .onErrorResume(error -> ReactiveRenderer.failure(error, "stored payload " + id));
+    }
+}
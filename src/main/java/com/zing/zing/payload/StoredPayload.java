@@ -0,0 +1,46 @@
+package com.zing.zing.payload;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A registered payload and its render options
+ *
+ * @param text   Text to encode
+ * @param width  Width in pixels
+ * @param height Height in pixels
+ * @param logo   Whether the company logo is embedded
+ * @param style  Name of a style from qrcode.styles, null for the plain code
+ */
+public record StoredPayload(String text, int width, int height, boolean logo, String style) {
+
+    public StoredPayload(String text, int width, int height, boolean logo) {
+        this(text, width, height, logo, null);
+    }
+
+    private static final int ID_BYTES = 12;
+
+    /**
+     * Content hash of the payload: URL-safe base64 of the first 96 bits of
+     * its SHA-256, so registering the same payload twice yields the same ID
+     */
+    public String id() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(("v1|" + width + "x" + height + "|" + (logo ? "logo" : "plain") + "|")
+                    .getBytes(StandardCharsets.UTF_8));
+            if (style != null) {
+                // Plain payloads keep the IDs they were registered with before styles
+                digest.update(("style=" + style + "|").getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            byte[] hash = Arrays.copyOf(digest.digest(), ID_BYTES);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
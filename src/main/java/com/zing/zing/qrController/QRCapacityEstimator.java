@@ -0,0 +1,80 @@
+package com.zing.zing.qrController;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Mode;
+import com.google.zxing.qrcode.decoder.Version;
+
+/**
+ * Cheap capacity check for QR code payloads
+ * Computes a lower bound on the number of data bits any segmentation of the
+ * text needs, so payloads that can never fit are rejected before encoding.
+ */
+public final class QRCapacityEstimator {
+
+    private static final int MAX_VERSION = 40;
+
+    private QRCapacityEstimator() {
+    }
+
+    /**
+     * Returns true if the text could fit in a QR code at the given error
+     * correction level. A false result is definitive; a true result means the
+     * encoder may still pick a larger symbol, but never that it will fail on
+     * capacity.
+     */
+    public static boolean fits(String text, ErrorCorrectionLevel level) {
+        return estimateMinimumVersion(text, level) > 0;
+    }
+
+    /**
+     * Returns the smallest QR version that could hold the text at the given
+     * error correction level, or -1 if even version 40 is too small
+     */
+    public static int estimateMinimumVersion(String text, ErrorCorrectionLevel level) {
+        long payloadSixths = minimumPayloadBitsTimesSix(text);
+
+        for (int versionNumber = 1; versionNumber <= MAX_VERSION; versionNumber++) {
+            Version version = Version.getVersionForNumber(versionNumber);
+            // Kanji has the shortest character count field in every version range
+            long headerBits = 4L + Mode.KANJI.getCharacterCountBits(version);
+            long requiredBits = headerBits + (payloadSixths + 5) / 6;
+
+            if (requiredBits <= dataCapacityBits(version, level)) {
+                return versionNumber;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Number of data bits available in the given version and error correction level
+     */
+    public static int dataCapacityBits(Version version, ErrorCorrectionLevel level) {
+        int ecCodewords = version.getECBlocksForLevel(level).getTotalECCodewords();
+        return (version.getTotalCodewords() - ecCodewords) * 8;
+    }
+
+    /**
+     * Lower bound of payload bits, scaled by six so numeric (10/3 bits) and
+     * alphanumeric (11/2 bits) costs stay integral
+     */
+    private static long minimumPayloadBitsTimesSix(String text) {
+        long total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                total += 20; // 10 bits per 3 digits
+            } else if (isAlphanumeric(c)) {
+                total += 33; // 11 bits per 2 characters
+            } else {
+                total += 48; // at least one byte in any charset or mode
+            }
+        }
+        return total;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'A' && c <= 'Z') || c == ' ' || c == '$' || c == '%' || c == '*'
+                || c == '+' || c == '-' || c == '.' || c == '/' || c == ':';
+    }
+}
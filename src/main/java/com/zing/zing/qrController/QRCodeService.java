@@ -7,13 +7,24 @@ import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
@@ -26,19 +37,67 @@ import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.Image;
 import com.itextpdf.text.pdf.PdfWriter;
-
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.diagnostics.RenderDiagnostics;
+import com.zing.zing.diagnostics.RenderStage;
+import com.zing.zing.render.ArrayCompositor;
+import com.zing.zing.render.LogoSpriteCache;
+import com.zing.zing.render.ModuleLayout;
+import com.zing.zing.render.PixelKernels;
+import com.zing.zing.render.PngEncoder;
+import com.zing.zing.render.QRTemplate;
+import com.zing.zing.render.QRStyle;
+import com.zing.zing.render.QRStyleRegistry;
+import com.zing.zing.render.QRTemplateCache;
+import com.zing.zing.render.RenderBufferPool;
+import com.zing.zing.render.SingleCodePdfWriter;
+import com.zing.zing.render.StyleSprites;
+import com.zing.zing.render.StyleSpriteCache;
+import com.zing.zing.render.SvgWriter;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class QRCodeService {
 
     private static final int MIN_SIZE = 100;
     private static final int MAX_SIZE = 2000;
+    private static final ErrorCorrectionLevel ERROR_CORRECTION_LEVEL = ErrorCorrectionLevel.H;
+    private static final int QUIET_ZONE = 2;
+
+    /** Bump when a code change alters the bytes rendered for the same payload and configuration */
+    private static final String RENDER_REVISION = "1";
+
+    /** Classpath locations tried for the company logo, in order */
+    private static final String[] LOGO_PATHS = {
+            "static/images/kcare-logo.png",
+            "/static/images/kcare-logo.png",
+            "images/kcare-logo.png",
+            "/images/kcare-logo.png",
+            "kcare-logo.png"
+    };
+
+    private final QRCodeConfig qrCodeConfig;
+    private final QRTemplateCache qrTemplateCache;
+    private final LogoSpriteCache logoSpriteCache;
+    private final PixelKernels pixelKernels;
+    private final SingleCodePdfWriter singleCodePdfWriter;
+    private final RenderBufferPool renderBufferPool;
+    private final RenderDiagnostics renderDiagnostics;
+    private final SvgWriter svgWriter;
+    private final QRStyleRegistry qrStyleRegistry;
+    private final StyleSpriteCache styleSpriteCache;
+
+    private volatile String renderVersion;
 
     /**
      * Generates QR code image in PNG format with enhanced quality and proper sizing
@@ -53,6 +112,18 @@ public class QRCodeService {
      */
     public byte[] generateQRCodeImage(String text, int width, int height)
             throws WriterException, IOException, IllegalArgumentException {
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace("png", text, width, height)) {
+            byte[] result = renderQRCodeImage(text, width, height);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Renders the PNG; traced by generateQRCodeImage
+     */
+    private byte[] renderQRCodeImage(String text, int width, int height)
+            throws WriterException, IOException, IllegalArgumentException {
 
         log.info("Generating QR code PNG for text length: {}, dimensions: {}x{}",
                 text != null ? text.length() : 0, width, height);
@@ -68,29 +139,88 @@ public class QRCodeService {
         width = Math.min(width, MAX_SIZE);
         height = Math.min(height, MAX_SIZE);
 
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-
         // Configure encoding hints for better quality
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H); // High error correction
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        hints.put(EncodeHintType.MARGIN, 2); // Reduced margin for larger QR code
+        Map<EncodeHintType, Object> hints = createEncodingHints();
 
-        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height, hints);
-
-        ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
+        // Encode modules only; function patterns and quiet zone come from the cached template
+        QRCode qrCode;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.ENCODE)) {
+            qrCode = Encoder.encode(text, ERROR_CORRECTION_LEVEL, hints);
+        }
+        QRTemplate template = qrTemplateCache.getTemplate(qrCode, width, height, QUIET_ZONE,
+                BufferedImage.TYPE_BYTE_BINARY);
 
-        byte[] result = pngOutputStream.toByteArray();
+        // Render into a pooled raster; it goes back to the pool once the PNG is encoded
+        BufferedImage qrImage = renderBufferPool.acquireImage(template.getWidth(), template.getHeight(),
+                BufferedImage.TYPE_BYTE_BINARY);
+        byte[] result;
+        try {
+            try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.RASTER)) {
+                template.renderInto(qrCode.getMatrix(), qrImage);
+            }
+            result = encodePng(qrImage);
+        } finally {
+            renderBufferPool.releaseImage(qrImage);
+        }
         log.info("Successfully generated QR code PNG with size: {} bytes", result.length);
 
         return result;
     }
 
+    /**
+     * Encodes a raster as PNG into a pooled buffer. With qrcode.render.png-writer
+     * set to pooled, QR rasters go through PngEncoder, which reuses per-thread
+     * rows and deflater; anything else goes through ImageIO with an in-memory
+     * stream, since ImageIO.write would use a temporary file cache by default.
+     */
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.PNG_ENCODE)) {
+            RenderBufferPool.Buffer buffer = renderBufferPool.acquireBuffer();
+            try {
+                if (qrCodeConfig.getRender().getPngWriter() == QRCodeConfig.Render.PngWriter.POOLED
+                        && PngEncoder.supports(image)) {
+                    PngEncoder.encode(image, buffer);
+                } else {
+                    ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+                    try (ImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+                        writer.setOutput(output);
+                        writer.write(image);
+                    } finally {
+                        writer.dispose();
+                    }
+                }
+
+                byte[] result = buffer.toByteArray();
+                stage.bytes(result.length);
+                return result;
+            } finally {
+                renderBufferPool.releaseBuffer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Builds the ZXing encoding hints shared by all render paths
+     */
+    private Map<EncodeHintType, Object> createEncodingHints() {
+        Map<EncodeHintType, Object> hints = new HashMap<>();
+        hints.put(EncodeHintType.ERROR_CORRECTION, ERROR_CORRECTION_LEVEL); // High error correction
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        hints.put(EncodeHintType.MARGIN, QUIET_ZONE); // Reduced margin for larger QR code
+
+        // Split text into optimal numeric/alphanumeric/byte/kanji segments for the smallest version
+        if (qrCodeConfig.getEncoding().isCompact()) {
+            hints.put(EncodeHintType.QR_COMPACT, Boolean.TRUE);
+        }
+        return hints;
+    }
+
     /**
      * Validates input parameters for QR code generation
+     *
+     * @throws IllegalArgumentException if parameters are invalid
      */
-    private void validateQRCodeInput(String text, int width, int height) {
+    public void validateQRCodeInput(String text, int width, int height) {
         if (!StringUtils.hasText(text)) {
             throw new IllegalArgumentException("Text cannot be null or empty");
         }
@@ -99,6 +229,12 @@ public class QRCodeService {
             throw new IllegalArgumentException("Text length cannot exceed 4000 characters");
         }
 
+        // Reject payloads that cannot fit even the largest symbol before doing any encoding work
+        if (!QRCapacityEstimator.fits(text, ERROR_CORRECTION_LEVEL)) {
+            throw new IllegalArgumentException(
+                    "Text is too long to fit in a QR code at error correction level " + ERROR_CORRECTION_LEVEL);
+        }
+
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("Width and height must be positive integers");
         }
@@ -122,40 +258,61 @@ public class QRCodeService {
      */
     public byte[] generateQRCodePDF(String text, int width, int height)
             throws WriterException, DocumentException, IOException, IllegalArgumentException {
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace("pdf", text, width, height)) {
+            byte[] result = renderQRCodePDF(text, width, height);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Renders the PDF; traced by generateQRCodePDF
+     */
+    private byte[] renderQRCodePDF(String text, int width, int height)
+            throws WriterException, DocumentException, IOException, IllegalArgumentException {
 
         log.info("Generating QR code PDF for text length: {}, dimensions: {}x{}",
                 text != null ? text.length() : 0, width, height);
 
+        if (qrCodeConfig.getPdf().getEngine() == QRCodeConfig.Pdf.Engine.TEMPLATE) {
+            return generateTemplatePDF(text, width, height, false);
+        }
+
         // Generate high-quality PNG first
         byte[] pngImageData = generateQRCodeImage(text, width, height);
 
         // Create PDF document
         Document document = new Document();
-        ByteArrayOutputStream pdfOutputStream = new ByteArrayOutputStream();
-
+        RenderBufferPool.Buffer pdfOutputStream = renderBufferPool.acquireBuffer();
         try {
-            PdfWriter.getInstance(document, pdfOutputStream);
-            document.open();
+            try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.PDF_ASSEMBLY)) {
+                try {
+                    PdfWriter.getInstance(document, pdfOutputStream);
+                    document.open();
 
-            // Create image from PNG data
-            Image qrCodeImage = Image.getInstance(pngImageData);
+                    // Create image from PNG data
+                    Image qrCodeImage = Image.getInstance(pngImageData);
 
-            // Scale image to fit page while maintaining aspect ratio
-            qrCodeImage.scaleToFit(width, height);
-            qrCodeImage.setAlignment(Image.ALIGN_CENTER);
+                    // Scale image to fit page while maintaining aspect ratio
+                    qrCodeImage.scaleToFit(width, height);
+                    qrCodeImage.setAlignment(Image.ALIGN_CENTER);
 
-            // Add some margin around the QR code
-            document.add(qrCodeImage);
+                    // Add some margin around the QR code
+                    document.add(qrCodeImage);
 
-            log.info("Successfully generated QR code PDF");
+                    log.info("Successfully generated QR code PDF");
 
-        } finally {
-            if (document.isOpen()) {
-                document.close();
+                } finally {
+                    if (document.isOpen()) {
+                        document.close();
+                    }
+                }
+                stage.bytes(pdfOutputStream.size());
             }
+            return pdfOutputStream.toByteArray();
+        } finally {
+            renderBufferPool.releaseBuffer(pdfOutputStream);
         }
-
-        return pdfOutputStream.toByteArray();
     }
 
     /**
@@ -172,6 +329,19 @@ public class QRCodeService {
      */
     public byte[] generateQRCodeImageWithLogo(String text, int width, int height, boolean withLogo)
             throws WriterException, IOException, IllegalArgumentException {
+        String operation = withLogo ? "png-logo" : "png";
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace(operation, text, width, height)) {
+            byte[] result = renderQRCodeImageWithLogo(text, width, height, withLogo);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Renders the PNG with logo; traced by generateQRCodeImageWithLogo
+     */
+    private byte[] renderQRCodeImageWithLogo(String text, int width, int height, boolean withLogo)
+            throws WriterException, IOException, IllegalArgumentException {
 
         log.info("Generating QR code PNG with logo: {}, text length: {}, dimensions: {}x{}",
                 withLogo, text != null ? text.length() : 0, width, height);
@@ -191,48 +361,113 @@ public class QRCodeService {
         width = Math.min(width, MAX_SIZE);
         height = Math.min(height, MAX_SIZE);
 
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-
-        // Configure encoding hints for better quality - Higher error correction for
-        // logo overlay
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H); // High error correction essential for logo
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        hints.put(EncodeHintType.MARGIN, 2);
+        // Configure encoding hints - high error correction is essential for logo overlay
+        Map<EncodeHintType, Object> hints = createEncodingHints();
 
-        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height, hints);
+        QRCode qrCode;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.ENCODE)) {
+            qrCode = Encoder.encode(text, ERROR_CORRECTION_LEVEL, hints);
+        }
 
-        // Convert to BufferedImage with color support for logo overlay
-        BufferedImage qrImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D qrGraphics = qrImage.createGraphics();
+        // Render into a pooled color raster for logo overlay, starting from the cached template
+        QRTemplate template = qrTemplateCache.getTemplate(qrCode, width, height, QUIET_ZONE,
+                BufferedImage.TYPE_INT_RGB);
+        BufferedImage qrImage = renderBufferPool.acquireImage(template.getWidth(), template.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
 
+        byte[] result;
         try {
-            // Fill with white background
-            qrGraphics.setColor(Color.WHITE);
-            qrGraphics.fillRect(0, 0, width, height);
-
-            // Draw QR code pattern in black
-            qrGraphics.setColor(Color.BLACK);
-            for (int x = 0; x < bitMatrix.getWidth(); x++) {
-                for (int y = 0; y < bitMatrix.getHeight(); y++) {
-                    if (bitMatrix.get(x, y)) {
-                        qrGraphics.fillRect(x, y, 1, 1);
-                    }
-                }
+            try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.RASTER)) {
+                template.renderInto(qrCode.getMatrix(), qrImage);
             }
+
+            // Add logo overlay
+            BufferedImage finalImage;
+            try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.COMPOSITE)) {
+                finalImage = qrCodeConfig.getRender().getEngine() == QRCodeConfig.Render.Engine.ARRAY
+                        ? addLogoToQRCodeArray(qrImage, 0xFFFFFF)
+                        : addLogoToQRCode(qrImage, qrImage.getWidth(), qrImage.getHeight());
+            }
+
+            // Convert to byte array
+            result = encodePng(finalImage);
         } finally {
-            qrGraphics.dispose();
+            renderBufferPool.releaseImage(qrImage);
         }
+        log.info("Successfully generated QR code PNG with logo, size: {} bytes", result.length);
 
-        // Add logo overlay
-        BufferedImage finalImage = addLogoToQRCode(qrImage, width, height);
+        return result;
+    }
 
-        // Convert to byte array
-        ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-        ImageIO.write(finalImage, "PNG", pngOutputStream);
+    /**
+     * Generates a styled QR code image, optionally with the company logo
+     * Modules and finder patterns are copied from the style's sprites, which
+     * are rendered once per module size. A blank style renders the plain code.
+     *
+     * @param text     The text to encode in QR code
+     * @param width    The width of QR code (minimum 100, maximum 2000)
+     * @param height   The height of QR code (minimum 100, maximum 2000)
+     * @param withLogo Whether to include the company logo
+     * @param style    Name of a style from qrcode.styles, or null
+     * @return byte array of PNG image
+     * @throws WriterException          if QR code generation fails
+     * @throws IOException              if image writing fails
+     * @throws IllegalArgumentException if parameters are invalid or the style is unknown
+     */
+    public byte[] generateQRCodeImageWithLogo(String text, int width, int height, boolean withLogo, String style)
+            throws WriterException, IOException, IllegalArgumentException {
+        QRStyle qrStyle = qrStyleRegistry.find(style);
+        if (qrStyle == null) {
+            return generateQRCodeImageWithLogo(text, width, height, withLogo);
+        }
+        String operation = withLogo ? "png-logo-styled" : "png-styled";
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace(operation, text, width, height)) {
+            byte[] result = renderStyledQRCodeImage(text, width, height, withLogo, qrStyle);
+            trace.complete(result.length);
+            return result;
+        }
+    }
 
-        byte[] result = pngOutputStream.toByteArray();
-        log.info("Successfully generated QR code PNG with logo, size: {} bytes", result.length);
+    /**
+     * Renders the styled PNG; traced by generateQRCodeImageWithLogo
+     */
+    private byte[] renderStyledQRCodeImage(String text, int width, int height, boolean withLogo, QRStyle style)
+            throws WriterException, IOException {
+
+        log.info("Generating styled QR code PNG: style={}, logo={}, text length: {}, dimensions: {}x{}",
+                style.name(), withLogo, text != null ? text.length() : 0, width, height);
+
+        validateQRCodeInput(text, width, height);
+
+        width = Math.min(Math.max(width, MIN_SIZE), MAX_SIZE);
+        height = Math.min(Math.max(height, MIN_SIZE), MAX_SIZE);
+
+        QRCode qrCode;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.ENCODE)) {
+            qrCode = Encoder.encode(text, ERROR_CORRECTION_LEVEL, createEncodingHints());
+        }
+        ModuleLayout layout = ModuleLayout.of(qrCode.getMatrix().getWidth(), width, height, QUIET_ZONE);
+        StyleSprites sprites = styleSpriteCache.getSprites(style, layout.multiple());
+
+        BufferedImage qrImage = renderBufferPool.acquireImage(layout.width(), layout.height(),
+                BufferedImage.TYPE_INT_RGB);
+        byte[] result;
+        try {
+            try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.RASTER)) {
+                sprites.renderInto(qrCode.getMatrix(), layout,
+                        ((DataBufferInt) qrImage.getRaster().getDataBuffer()).getData());
+            }
+            if (withLogo) {
+                // Styled codes never go through Graphics2D; the backplate takes the style's background
+                try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.COMPOSITE)) {
+                    addLogoToQRCodeArray(qrImage, style.background());
+                }
+            }
+            result = encodePng(qrImage);
+        } finally {
+            renderBufferPool.releaseImage(qrImage);
+        }
+        log.info("Successfully generated styled QR code PNG, size: {} bytes", result.length);
 
         return result;
     }
@@ -269,7 +504,7 @@ public class QRCodeService {
             g2d.fillOval(backgroundX, backgroundY, backgroundSize, backgroundSize);
 
             // Try to load logo image from resources
-            BufferedImage logoImage = loadLogoImage();
+            BufferedImage logoImage = loadLogoImageForRender();
             if (logoImage != null) {
                 log.info("Using original KCare logo with preserved colors, original size: {}x{}",
                         logoImage.getWidth(), logoImage.getHeight());
@@ -300,6 +535,71 @@ public class QRCodeService {
         return qrImage;
     }
 
+    /**
+     * Adds company logo to the center of QR code by writing directly into the
+     * raster's pixel array. Produces the same layout as addLogoToQRCode without
+     * going through Graphics2D; the logo is pre-rendered once per size.
+     */
+    private BufferedImage addLogoToQRCodeArray(BufferedImage qrImage, int backgroundRgb) {
+        int width = qrImage.getWidth();
+        int height = qrImage.getHeight();
+        int[] pixels = ((DataBufferInt) qrImage.getRaster().getDataBuffer()).getData();
+
+        int logoSize = Math.min(width, height) / 4; // 25% of QR code size
+        int logoX = (width - logoSize) / 2;
+        int logoY = (height - logoSize) / 2;
+
+        int padding = logoSize / 10;
+        int backgroundSize = logoSize + (padding * 2);
+        ArrayCompositor.fillOval(pixels, width, height, logoX - padding, logoY - padding,
+                backgroundSize, backgroundSize, backgroundRgb);
+
+        int[] logoSprite = logoSpriteCache.getSprite(logoSize, this::renderLogoSprite);
+        ArrayCompositor.blendSrcOver(pixels, width, height, logoSprite, logoSize, logoSize, logoX, logoY,
+                pixelKernels);
+
+        log.debug("Array logo overlay completed: size={}, x={}, y={}", logoSize, logoX, logoY);
+        return qrImage;
+    }
+
+    /**
+     * Renders the logo, or the text fallback, into transparent square ARGB pixels
+     */
+    private int[] renderLogoSprite(int logoSize) {
+        BufferedImage logoImage = loadLogoImageForRender();
+        if (logoImage != null && qrCodeConfig.getRender().isSimd()) {
+            // Resample with the pixel kernels instead of Java2D bicubic scaling
+            int logoWidth = logoImage.getWidth();
+            int logoHeight = logoImage.getHeight();
+            int[] logoPixels = logoImage.getRGB(0, 0, logoWidth, logoHeight, null, 0, logoWidth);
+            return pixelKernels.resample(logoPixels, logoWidth, logoHeight, logoSize, logoSize);
+        }
+
+        BufferedImage sprite;
+        if (logoImage != null) {
+            sprite = scaleImage(ensureColorImage(logoImage), logoSize, logoSize);
+        } else {
+            sprite = new BufferedImage(logoSize, logoSize, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = sprite.createGraphics();
+            try {
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                drawLogoText(g2d, 0, 0, logoSize);
+            } finally {
+                g2d.dispose();
+            }
+        }
+        return sprite.getRGB(0, 0, logoSize, logoSize, null, 0, logoSize);
+    }
+
+    /**
+     * Loads the logo as a timed render stage
+     */
+    private BufferedImage loadLogoImageForRender() {
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.LOGO_LOAD)) {
+            return loadLogoImage();
+        }
+    }
+
     /**
      * Attempts to load logo image from resources with color preservation
      */
@@ -307,16 +607,7 @@ public class QRCodeService {
         try {
             log.info("Attempting to load KCare logo with color preservation");
 
-            // Try multiple paths for logo loading
-            String[] logoPaths = {
-                    "static/images/kcare-logo.png",
-                    "/static/images/kcare-logo.png",
-                    "images/kcare-logo.png",
-                    "/images/kcare-logo.png",
-                    "kcare-logo.png"
-            };
-
-            for (String logoPath : logoPaths) {
+            for (String logoPath : LOGO_PATHS) {
                 try {
                     ClassPathResource logoResource = new ClassPathResource(logoPath);
                     log.info("Trying logo path: {}, exists: {}", logoPath, logoResource.exists());
@@ -428,41 +719,268 @@ public class QRCodeService {
      */
     public byte[] generateQRCodePDFWithLogo(String text, int width, int height, boolean withLogo)
             throws WriterException, DocumentException, IOException, IllegalArgumentException {
+        String operation = withLogo ? "pdf-logo" : "pdf";
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace(operation, text, width, height)) {
+            byte[] result = renderQRCodePDFWithLogo(text, width, height, withLogo);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Renders the PDF with logo; traced by generateQRCodePDFWithLogo
+     */
+    private byte[] renderQRCodePDFWithLogo(String text, int width, int height, boolean withLogo)
+            throws WriterException, DocumentException, IOException, IllegalArgumentException {
 
         log.info("Generating QR code PDF with logo: {}, text length: {}, dimensions: {}x{}",
                 withLogo, text != null ? text.length() : 0, width, height);
 
+        if (qrCodeConfig.getPdf().getEngine() == QRCodeConfig.Pdf.Engine.TEMPLATE) {
+            return generateTemplatePDF(text, width, height, withLogo);
+        }
+
         // Generate high-quality PNG with or without logo
         byte[] pngImageData = withLogo ? generateQRCodeImageWithLogo(text, width, height, true)
                 : generateQRCodeImage(text, width, height);
 
         // Create PDF document
         Document document = new Document();
-        ByteArrayOutputStream pdfOutputStream = new ByteArrayOutputStream();
-
+        RenderBufferPool.Buffer pdfOutputStream = renderBufferPool.acquireBuffer();
         try {
-            PdfWriter.getInstance(document, pdfOutputStream);
-            document.open();
+            try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.PDF_ASSEMBLY)) {
+                try {
+                    PdfWriter.getInstance(document, pdfOutputStream);
+                    document.open();
 
-            // Create image from PNG data
-            Image qrCodeImage = Image.getInstance(pngImageData);
+                    // Create image from PNG data
+                    Image qrCodeImage = Image.getInstance(pngImageData);
 
-            // Scale image to fit page while maintaining aspect ratio
-            qrCodeImage.scaleToFit(width, height);
-            qrCodeImage.setAlignment(Image.ALIGN_CENTER);
+                    // Scale image to fit page while maintaining aspect ratio
+                    qrCodeImage.scaleToFit(width, height);
+                    qrCodeImage.setAlignment(Image.ALIGN_CENTER);
 
-            // Add some margin around the QR code
-            document.add(qrCodeImage);
+                    // Add some margin around the QR code
+                    document.add(qrCodeImage);
 
-            log.info("Successfully generated QR code PDF with logo: {}", withLogo);
+                    log.info("Successfully generated QR code PDF with logo: {}", withLogo);
 
+                } finally {
+                    if (document.isOpen()) {
+                        document.close();
+                    }
+                }
+                stage.bytes(pdfOutputStream.size());
+            }
+            return pdfOutputStream.toByteArray();
         } finally {
-            if (document.isOpen()) {
-                document.close();
+            renderBufferPool.releaseBuffer(pdfOutputStream);
+        }
+    }
+
+    /**
+     * Generates a styled QR code in PDF format, optionally with the company logo
+     * The styled PNG is embedded with iText whatever qrcode.pdf.engine says,
+     * since the template engine draws plain square modules. A blank style
+     * renders the plain code.
+     *
+     * @param style Name of a style from qrcode.styles, or null
+     * @return byte array of PDF document
+     * @throws WriterException          if QR code generation fails
+     * @throws DocumentException        if PDF creation fails
+     * @throws IOException              if image processing fails
+     * @throws IllegalArgumentException if parameters are invalid or the style is unknown
+     */
+    public byte[] generateQRCodePDFWithLogo(String text, int width, int height, boolean withLogo, String style)
+            throws WriterException, DocumentException, IOException, IllegalArgumentException {
+        if (qrStyleRegistry.find(style) == null) {
+            return generateQRCodePDFWithLogo(text, width, height, withLogo);
+        }
+        String operation = withLogo ? "pdf-logo-styled" : "pdf-styled";
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace(operation, text, width, height)) {
+            byte[] pngImageData = generateQRCodeImageWithLogo(text, width, height, withLogo, style);
+
+            Document document = new Document();
+            RenderBufferPool.Buffer pdfOutputStream = renderBufferPool.acquireBuffer();
+            byte[] result;
+            try {
+                try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.PDF_ASSEMBLY)) {
+                    try {
+                        PdfWriter.getInstance(document, pdfOutputStream);
+                        document.open();
+                        Image qrCodeImage = Image.getInstance(pngImageData);
+                        qrCodeImage.scaleToFit(width, height);
+                        qrCodeImage.setAlignment(Image.ALIGN_CENTER);
+                        document.add(qrCodeImage);
+                    } finally {
+                        if (document.isOpen()) {
+                            document.close();
+                        }
+                    }
+                    stage.bytes(pdfOutputStream.size());
+                }
+                result = pdfOutputStream.toByteArray();
+            } finally {
+                renderBufferPool.releaseBuffer(pdfOutputStream);
+            }
+            log.info("Successfully generated styled QR code PDF, style: {}, size: {} bytes", style, result.length);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Generates a single-code PDF from the module matrix without an iText
+     * document or a PNG round-trip; page layout matches the iText path.
+     * Used for the template engine and as the cheap path under overload.
+     */
+    public byte[] generateTemplatePDF(String text, int width, int height, boolean withLogo)
+            throws WriterException {
+        String operation = withLogo ? "pdf-template-logo" : "pdf-template";
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace(operation, text, width, height)) {
+            byte[] result = renderTemplatePDF(text, width, height, withLogo);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Renders the template PDF; traced by generateTemplatePDF
+     */
+    private byte[] renderTemplatePDF(String text, int width, int height, boolean withLogo)
+            throws WriterException {
+
+        validateQRCodeInput(text, width, height);
+
+        int rasterWidth = Math.min(Math.max(width, MIN_SIZE), MAX_SIZE);
+        int rasterHeight = Math.min(Math.max(height, MIN_SIZE), MAX_SIZE);
+
+        QRCode qrCode;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.ENCODE)) {
+            qrCode = Encoder.encode(text, ERROR_CORRECTION_LEVEL, createEncodingHints());
+        }
+        ModuleLayout layout = ModuleLayout.of(qrCode.getMatrix().getWidth(), rasterWidth, rasterHeight, QUIET_ZONE);
+
+        byte[] result;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.PDF_ASSEMBLY)) {
+            result = withLogo
+                    ? singleCodePdfWriter.writeWithLogo(qrCode.getMatrix(), layout, width, height,
+                            logoSize -> logoSpriteCache.getSprite(logoSize, this::renderLogoSprite))
+                    : singleCodePdfWriter.write(qrCode.getMatrix(), layout, width, height);
+            stage.bytes(result.length);
+        }
+
+        log.info("Successfully generated template QR code PDF with logo: {}, size: {} bytes", withLogo,
+                result.length);
+        return result;
+    }
+
+    /**
+     * Generates QR code in SVG format, with the same layout as the PNG
+     *
+     * @param text     The text to encode in QR code
+     * @param width    The width of QR code (minimum 100, maximum 2000)
+     * @param height   The height of QR code (minimum 100, maximum 2000)
+     * @param withLogo Whether to include the company logo
+     * @return UTF-8 bytes of the SVG document
+     * @throws WriterException          if QR code generation fails
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public byte[] generateQRCodeSVG(String text, int width, int height, boolean withLogo)
+            throws WriterException, IllegalArgumentException {
+        return generateQRCodeSVG(text, width, height, withLogo, null);
+    }
+
+    /**
+     * Generates QR code in SVG format in a style; a blank style renders the plain code
+     *
+     * @param style Name of a style from qrcode.styles, or null
+     * @throws IllegalArgumentException if parameters are invalid or the style is unknown
+     */
+    public byte[] generateQRCodeSVG(String text, int width, int height, boolean withLogo, String style)
+            throws WriterException, IllegalArgumentException {
+        QRStyle qrStyle = qrStyleRegistry.find(style);
+        String operation = (withLogo ? "svg-logo" : "svg") + (qrStyle != null ? "-styled" : "");
+        try (RenderDiagnostics.Trace trace = renderDiagnostics.trace(operation, text, width, height)) {
+            byte[] result = renderQRCodeSVG(text, width, height, withLogo, qrStyle);
+            trace.complete(result.length);
+            return result;
+        }
+    }
+
+    /**
+     * Renders the SVG; traced by generateQRCodeSVG
+     */
+    private byte[] renderQRCodeSVG(String text, int width, int height, boolean withLogo, QRStyle style)
+            throws WriterException {
+
+        validateQRCodeInput(text, width, height);
+
+        width = Math.min(Math.max(width, MIN_SIZE), MAX_SIZE);
+        height = Math.min(Math.max(height, MIN_SIZE), MAX_SIZE);
+
+        QRCode qrCode;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.ENCODE)) {
+            qrCode = Encoder.encode(text, ERROR_CORRECTION_LEVEL, createEncodingHints());
+        }
+        ModuleLayout layout = ModuleLayout.of(qrCode.getMatrix().getWidth(), width, height, QUIET_ZONE);
+
+        byte[] result;
+        try (RenderDiagnostics.Stage stage = renderDiagnostics.stage(RenderStage.SVG_WRITE)) {
+            IntFunction<int[]> logoSprites = withLogo
+                    ? logoSize -> logoSpriteCache.getSprite(logoSize, this::renderLogoSprite)
+                    : null;
+            if (style != null) {
+                result = svgWriter.writeStyled(qrCode.getMatrix(), layout, style, logoSprites);
+            } else {
+                result = withLogo ? svgWriter.writeWithLogo(qrCode.getMatrix(), layout, logoSprites)
+                        : svgWriter.write(qrCode.getMatrix(), layout);
             }
+            stage.bytes(result.length);
         }
 
-        return pdfOutputStream.toByteArray();
+        log.info("Successfully generated QR code SVG with logo: {}, size: {} bytes", withLogo, result.length);
+        return result;
+    }
+
+    /**
+     * Short hash of everything besides the payload that shapes rendered bytes:
+     * the render revision, text segmentation, engines, logo resampling, PNG
+     * writer, styles and the logo resource.
+     * Cacheable responses carry it in their validators, so a configuration
+     * change or a new logo is not served from stale caches.
+     */
+    public String renderVersion() {
+        String version = renderVersion;
+        if (version == null) {
+            version = computeRenderVersion();
+            renderVersion = version;
+        }
+        return version;
+    }
+
+    private String computeRenderVersion() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Compact encoding can pick another symbol version; SIMD swaps the logo sprite resampler
+            String settings = RENDER_REVISION + "|compact=" + qrCodeConfig.getEncoding().isCompact() + "|"
+                    + qrCodeConfig.getRender().getEngine() + "|simd=" + qrCodeConfig.getRender().isSimd() + "|"
+                    + qrCodeConfig.getRender().getPngWriter() + "|" + qrCodeConfig.getPdf().getEngine() + "|"
+                    + new TreeMap<>(qrCodeConfig.getStyles()) + "|";
+            digest.update(settings.getBytes(StandardCharsets.UTF_8));
+            for (String logoPath : LOGO_PATHS) {
+                ClassPathResource logoResource = new ClassPathResource(logoPath);
+                if (logoResource.exists()) {
+                    try (InputStream stream = logoResource.getInputStream()) {
+                        digest.update(stream.readAllBytes());
+                    }
+                    break;
+                }
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 6));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Could not compute render version", e);
+        }
     }
 
     /**
@@ -472,16 +990,7 @@ public class QRCodeService {
         Map<String, Object> status = new HashMap<>();
 
         try {
-            // Check different logo paths
-            String[] logoPaths = {
-                    "static/images/kcare-logo.png",
-                    "/static/images/kcare-logo.png",
-                    "images/kcare-logo.png",
-                    "/images/kcare-logo.png",
-                    "kcare-logo.png"
-            };
-
-            for (String logoPath : logoPaths) {
+            for (String logoPath : LOGO_PATHS) {
                 ClassPathResource logoResource = new ClassPathResource(logoPath);
                 boolean exists = logoResource.exists();
                 status.put("path_" + logoPath.replace("/", "_"), exists);
@@ -529,10 +1038,7 @@ public class QRCodeService {
 
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
 
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
-        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-        hints.put(EncodeHintType.MARGIN, 2);
+        Map<EncodeHintType, Object> hints = createEncodingHints();
 
         BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height, hints);
         BufferedImage qrImage = MatrixToImageWriter.toBufferedImage(bitMatrix);
@@ -1,9 +1,9 @@
 package com.zing.zing.qrController;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -14,8 +14,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.google.zxing.WriterException;
-import com.itextpdf.text.DocumentException;
+import com.zing.zing.cache.PeerRenderCache;
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.cache.RenderOutput;
+import com.zing.zing.diagnostics.RenderDiagnostics;
+import com.zing.zing.exception.QRCodeGenerationException;
+import com.zing.zing.load.AdaptiveQualityPolicy;
+import com.zing.zing.render.QRStyleRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,12 +31,21 @@ import lombok.extern.slf4j.Slf4j;
  */
 @RestController
 @RequestMapping("/api/v1/qr")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class QrCodeController {
 
     private final QRCodeService qrCodeService;
 
+    private final PeerRenderCache renderCache;
+
+    private final AdaptiveQualityPolicy qualityPolicy;
+
+    private final RenderDiagnostics renderDiagnostics;
+
+    private final QRStyleRegistry qrStyleRegistry;
+
     /**
      * Generate QR Code as PNG image
      * Generates a QR code in PNG format with specified dimensions.
@@ -40,35 +54,41 @@ public class QrCodeController {
      * @param text   Text to encode in QR code (required)
      * @param width  Width of QR code in pixels (100-2000, default: 300)
      * @param height Height of QR code in pixels (100-2000, default: 300)
+     * @param style  Name of a style from qrcode.styles (optional)
      * @return ResponseEntity containing PNG image bytes
      */
     @GetMapping(value = "/qrcode/png", produces = MediaType.IMAGE_PNG_VALUE)
-    public ResponseEntity<byte[]> generateQRCodePNG(
+    public ResponseEntity<RenderOutput> generateQRCodePNG(
             @RequestParam String text,
             @RequestParam(defaultValue = "300") int width,
-            @RequestParam(defaultValue = "300") int height) {
+            @RequestParam(defaultValue = "300") int height,
+            @RequestParam(required = false) String style) {
 
-        try {
+        try (AdaptiveQualityPolicy.Admission admission = qualityPolicy.admit()) {
             log.info("Received request to generate PNG QR code: text length={}, dimensions={}x{}",
                     text.length(), width, height);
 
-            byte[] qrCodeBytes = qrCodeService.generateQRCodeImage(text, width, height);
+            // Unknown styles are rejected before the cache lookup
+            qrStyleRegistry.find(style);
+            RenderOutput qrCode = renderCache.getOutput(
+                    admission.apply(new RenderKey(RenderKey.Format.PNG, text, width, height, style)));
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.IMAGE_PNG);
             headers.setCacheControl("no-cache, no-store, must-revalidate");
             headers.setPragma("no-cache");
             headers.setExpires(0);
+            headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, admission.level().headerValue());
             headers.set("Content-Disposition", "inline; filename=qrcode.png");
 
-            log.info("Successfully generated PNG QR code with {} bytes", qrCodeBytes.length);
+            log.info("Successfully generated PNG QR code with {} bytes", qrCode.length());
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode, headers, HttpStatus.OK);
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid parameters for PNG QR code generation: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (WriterException | IOException e) {
+        } catch (QRCodeGenerationException e) {
             log.error("Error generating PNG QR code", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -81,19 +101,23 @@ public class QrCodeController {
      * @param text   Text to encode in QR code (required)
      * @param width  Width of QR code in pixels (100-2000, default: 300)
      * @param height Height of QR code in pixels (100-2000, default: 300)
+     * @param style  Name of a style from qrcode.styles (optional)
      * @return ResponseEntity containing PDF document bytes
      */
     @GetMapping(value = "/qrcode/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> generateQRCodePDF(
+    public ResponseEntity<RenderOutput> generateQRCodePDF(
             @RequestParam String text,
             @RequestParam(defaultValue = "300") int width,
-            @RequestParam(defaultValue = "300") int height) {
+            @RequestParam(defaultValue = "300") int height,
+            @RequestParam(required = false) String style) {
 
-        try {
+        try (AdaptiveQualityPolicy.Admission admission = qualityPolicy.admit()) {
             log.info("Received request to generate PDF QR code: text length={}, dimensions={}x{}",
                     text.length(), width, height);
 
-            byte[] qrCodeBytes = qrCodeService.generateQRCodePDF(text, width, height);
+            qrStyleRegistry.find(style);
+            RenderOutput qrCode = renderCache.getOutput(
+                    admission.apply(new RenderKey(RenderKey.Format.PDF, text, width, height, style)));
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -101,15 +125,16 @@ public class QrCodeController {
             headers.setCacheControl("no-cache, no-store, must-revalidate");
             headers.setPragma("no-cache");
             headers.setExpires(0);
+            headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, admission.level().headerValue());
 
-            log.info("Successfully generated PDF QR code with {} bytes", qrCodeBytes.length);
+            log.info("Successfully generated PDF QR code with {} bytes", qrCode.length());
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode, headers, HttpStatus.OK);
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid parameters for PDF QR code generation: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (WriterException | DocumentException | IOException e) {
+        } catch (QRCodeGenerationException e) {
             log.error("Error generating PDF QR code", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -123,36 +148,41 @@ public class QrCodeController {
      * @param width    Width of QR code in pixels (100-2000, default: 300)
      * @param height   Height of QR code in pixels (100-2000, default: 300)
      * @param withLogo Whether to include company logo (default: true)
+     * @param style    Name of a style from qrcode.styles (optional)
      * @return ResponseEntity containing PNG image bytes with logo
      */
     @GetMapping(value = "/qrcode/png/logo", produces = MediaType.IMAGE_PNG_VALUE)
-    public ResponseEntity<byte[]> generateQRCodePNGWithLogo(
+    public ResponseEntity<RenderOutput> generateQRCodePNGWithLogo(
             @RequestParam String text,
             @RequestParam(defaultValue = "300") int width,
             @RequestParam(defaultValue = "300") int height,
-            @RequestParam(defaultValue = "true") boolean withLogo) {
+            @RequestParam(defaultValue = "true") boolean withLogo,
+            @RequestParam(required = false) String style) {
 
-        try {
+        try (AdaptiveQualityPolicy.Admission admission = qualityPolicy.admit()) {
             log.info("Received request to generate PNG QR code with logo: text length={}, dimensions={}x{}, logo={}",
                     text.length(), width, height, withLogo);
 
-            byte[] qrCodeBytes = qrCodeService.generateQRCodeImageWithLogo(text, width, height, withLogo);
+            qrStyleRegistry.find(style);
+            RenderOutput qrCode = renderCache.getOutput(admission.apply(new RenderKey(
+                    withLogo ? RenderKey.Format.PNG_LOGO : RenderKey.Format.PNG, text, width, height, style)));
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.IMAGE_PNG);
             headers.setCacheControl("no-cache, no-store, must-revalidate");
             headers.setPragma("no-cache");
             headers.setExpires(0);
+            headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, admission.level().headerValue());
             headers.set("Content-Disposition", "inline; filename=qrcode-with-logo.png");
 
-            log.info("Successfully generated PNG QR code with logo, size: {} bytes", qrCodeBytes.length);
+            log.info("Successfully generated PNG QR code with logo, size: {} bytes", qrCode.length());
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode, headers, HttpStatus.OK);
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid parameters for PNG QR code with logo generation: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (WriterException | IOException e) {
+        } catch (QRCodeGenerationException e) {
             log.error("Error generating PNG QR code with logo", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -166,20 +196,24 @@ public class QrCodeController {
      * @param width    Width of QR code in pixels (100-2000, default: 300)
      * @param height   Height of QR code in pixels (100-2000, default: 300)
      * @param withLogo Whether to include company logo (default: true)
+     * @param style    Name of a style from qrcode.styles (optional)
      * @return ResponseEntity containing PDF document bytes with logo
      */
     @GetMapping(value = "/qrcode/pdf/logo", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> generateQRCodePDFWithLogo(
+    public ResponseEntity<RenderOutput> generateQRCodePDFWithLogo(
             @RequestParam String text,
             @RequestParam(defaultValue = "300") int width,
             @RequestParam(defaultValue = "300") int height,
-            @RequestParam(defaultValue = "true") boolean withLogo) {
+            @RequestParam(defaultValue = "true") boolean withLogo,
+            @RequestParam(required = false) String style) {
 
-        try {
+        try (AdaptiveQualityPolicy.Admission admission = qualityPolicy.admit()) {
             log.info("Received request to generate PDF QR code with logo: text length={}, dimensions={}x{}, logo={}",
                     text.length(), width, height, withLogo);
 
-            byte[] qrCodeBytes = qrCodeService.generateQRCodePDFWithLogo(text, width, height, withLogo);
+            qrStyleRegistry.find(style);
+            RenderOutput qrCode = renderCache.getOutput(admission.apply(new RenderKey(
+                    withLogo ? RenderKey.Format.PDF_LOGO : RenderKey.Format.PDF, text, width, height, style)));
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -187,15 +221,16 @@ public class QrCodeController {
             headers.setCacheControl("no-cache, no-store, must-revalidate");
             headers.setPragma("no-cache");
             headers.setExpires(0);
+            headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, admission.level().headerValue());
 
-            log.info("Successfully generated PDF QR code with logo, size: {} bytes", qrCodeBytes.length);
+            log.info("Successfully generated PDF QR code with logo, size: {} bytes", qrCode.length());
 
-            return new ResponseEntity<>(qrCodeBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(qrCode, headers, HttpStatus.OK);
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid parameters for PDF QR code with logo generation: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
-        } catch (WriterException | DocumentException | IOException e) {
+        } catch (QRCodeGenerationException e) {
             log.error("Error generating PDF QR code with logo", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -248,6 +283,31 @@ public class QrCodeController {
         }
     }
 
+    /**
+     * Debug endpoint with the slowest renders of the current and previous
+     * interval, with their parameters and per-stage timings
+     */
+    @GetMapping(value = "/qrcode/debug/slow-renders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> debugSlowRenders() {
+        return ResponseEntity.ok(renderDiagnostics.slowRenders());
+    }
+
+    /**
+     * Debug endpoint with render cache counters and sizes
+     */
+    @GetMapping(value = "/qrcode/debug/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> debugCacheStatus() {
+        return ResponseEntity.ok(renderCache.stats());
+    }
+
+    /**
+     * Debug endpoint with the current render quality level and load
+     */
+    @GetMapping(value = "/qrcode/debug/quality", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> debugQualityStatus() {
+        return ResponseEntity.ok(qualityPolicy.stats());
+    }
+
     /**
      * Test endpoint with forced visible logo for debugging
      */
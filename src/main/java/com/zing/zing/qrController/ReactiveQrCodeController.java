@@ -0,0 +1,194 @@
+package com.zing.zing.qrController;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.zing.zing.cache.PeerRenderCache;
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.diagnostics.RenderDiagnostics;
+import com.zing.zing.load.AdaptiveQualityPolicy;
+import com.zing.zing.reactive.ReactiveRenderer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of QrCodeController, active with the reactive profile
+ * Same paths, parameters and headers; renders run on the bounded render pool
+ * and the output is streamed to the client as it asks for it. The test
+ * endpoints are left to the servlet controller.
+ */
+@RestController
+@RequestMapping("/api/v1/qr")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveQrCodeController {
+
+    private final QRCodeService qrCodeService;
+
+    private final ReactiveRenderer reactiveRenderer;
+
+    private final PeerRenderCache renderCache;
+
+    private final AdaptiveQualityPolicy qualityPolicy;
+
+    private final RenderDiagnostics renderDiagnostics;
+
+    /**
+     * Generate QR Code as PNG image
+     *
+     * @see QrCodeController#generateQRCodePNG
+     */
+    @GetMapping(value = "/qrcode/png", produces = MediaType.IMAGE_PNG_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateQRCodePNG(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "300") int width,
+            @RequestParam(defaultValue = "300") int height,
+            @RequestParam(required = false) String style,
+            ServerHttpResponse response) {
+        return render(new RenderKey(RenderKey.Format.PNG, text, width, height, style), MediaType.IMAGE_PNG,
+                "inline; filename=qrcode.png", response);
+    }
+
+    /**
+     * Generate QR Code as PDF document
+     *
+     * @see QrCodeController#generateQRCodePDF
+     */
+    @GetMapping(value = "/qrcode/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateQRCodePDF(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "300") int width,
+            @RequestParam(defaultValue = "300") int height,
+            @RequestParam(required = false) String style,
+            ServerHttpResponse response) {
+        return render(new RenderKey(RenderKey.Format.PDF, text, width, height, style), MediaType.APPLICATION_PDF,
+                "attachment; filename=qrcode.pdf", response);
+    }
+
+    /**
+     * Generate QR Code as PNG image with company logo
+     *
+     * @see QrCodeController#generateQRCodePNGWithLogo
+     */
+    @GetMapping(value = "/qrcode/png/logo", produces = MediaType.IMAGE_PNG_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateQRCodePNGWithLogo(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "300") int width,
+            @RequestParam(defaultValue = "300") int height,
+            @RequestParam(defaultValue = "true") boolean withLogo,
+            @RequestParam(required = false) String style,
+            ServerHttpResponse response) {
+        RenderKey.Format format = withLogo ? RenderKey.Format.PNG_LOGO : RenderKey.Format.PNG;
+        return render(new RenderKey(format, text, width, height, style), MediaType.IMAGE_PNG,
+                "inline; filename=qrcode-with-logo.png", response);
+    }
+
+    /**
+     * Generate QR Code as PDF document with company logo
+     *
+     * @see QrCodeController#generateQRCodePDFWithLogo
+     */
+    @GetMapping(value = "/qrcode/pdf/logo", produces = MediaType.APPLICATION_PDF_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateQRCodePDFWithLogo(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "300") int width,
+            @RequestParam(defaultValue = "300") int height,
+            @RequestParam(defaultValue = "true") boolean withLogo,
+            @RequestParam(required = false) String style,
+            ServerHttpResponse response) {
+        RenderKey.Format format = withLogo ? RenderKey.Format.PDF_LOGO : RenderKey.Format.PDF;
+        return render(new RenderKey(format, text, width, height, style), MediaType.APPLICATION_PDF,
+                "attachment; filename=qrcode-with-logo.pdf", response);
+    }
+
+    /**
+     * Debug endpoint to check logo loading status
+     */
+    @GetMapping(value = "/qrcode/debug/logo", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> debugLogoStatus() {
+        return reactiveRenderer.call(qrCodeService::debugLogoStatus).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Debug endpoint with the slowest renders of the current and previous interval
+     */
+    @GetMapping(value = "/qrcode/debug/slow-renders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> debugSlowRenders() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(renderDiagnostics.slowRenders()));
+    }
+
+    /**
+     * Debug endpoint with render cache counters and sizes
+     */
+    @GetMapping(value = "/qrcode/debug/cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> debugCacheStatus() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(renderCache.stats()));
+    }
+
+    /**
+     * Debug endpoint with the current render quality level and load, plus the
+     * render pool's threads and queue
+     */
+    @GetMapping(value = "/qrcode/debug/quality", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> debugQualityStatus() {
+        return Mono.fromSupplier(() -> {
+            Map<String, Object> stats = new LinkedHashMap<>(qualityPolicy.stats());
+            stats.putAll(reactiveRenderer.stats());
+            return ResponseEntity.ok(stats);
+        });
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> render(RenderKey key, MediaType mediaType, String disposition,
+            ServerHttpResponse response) {
+        log.info("Received reactive request to generate {} QR code: text length={}, dimensions={}x{}",
+                key.format(), key.text().length(), key.width(), key.height());
+
+        return reactiveRenderer.render(key).map(rendered -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(mediaType);
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, disposition);
+            headers.setCacheControl("no-cache, no-store, must-revalidate");
+            headers.setPragma("no-cache");
+            headers.setExpires(0);
+            headers.set(AdaptiveQualityPolicy.QUALITY_HEADER, rendered.level().headerValue());
+            headers.setContentLength(rendered.output().length());
+
+            log.info("Successfully generated {} QR code with {} bytes", key.format(), rendered.output().length());
+
+            return new ResponseEntity<>(reactiveRenderer.stream(rendered.output(), response.bufferFactory()),
+                    headers, HttpStatus.OK);
+        }).onErrorResume(error -> ReactiveRenderer.failure(error, key.format() + " QR code"));
+    }
+
+    /**
+     * Global exception handler for unexpected errors
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, String>> handleGenericException(Exception e) {
+        log.error("Unexpected error in reactive QR code controller", e);
+
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Internal server error");
+        errorResponse.put("message", "An unexpected error occurred while processing your request");
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+}
@@ -0,0 +1,185 @@
+package com.zing.zing.reactive;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.cache.PeerRenderCache;
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.cache.RenderOutput;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.exception.QRCodeGenerationException;
+import com.zing.zing.load.AdaptiveQualityPolicy;
+import com.zing.zing.load.QualityLevel;
+import com.zing.zing.render.QRStyleRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs renders for the reactive endpoints on a bounded pool
+ * Event-loop threads only accept connections and write buffers; renders run
+ * on qrcode.reactive.render-threads threads with at most queued-renders
+ * waiting, so open connections no longer cost a thread each and a full
+ * queue is answered with 503 instead of growing without bound.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveRenderer implements DisposableBean {
+
+    private final PeerRenderCache renderCache;
+    private final AdaptiveQualityPolicy qualityPolicy;
+    private final QRStyleRegistry qrStyleRegistry;
+    private final int chunkBytes;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+
+    public ReactiveRenderer(QRCodeConfig qrCodeConfig, PeerRenderCache renderCache,
+            AdaptiveQualityPolicy qualityPolicy, QRStyleRegistry qrStyleRegistry) {
+        this.renderCache = renderCache;
+        this.qualityPolicy = qualityPolicy;
+        this.qrStyleRegistry = qrStyleRegistry;
+
+        QRCodeConfig.Reactive config = qrCodeConfig.getReactive();
+        this.chunkBytes = config.getChunkBytes();
+        int threads = config.getRenderThreads() > 0 ? config.getRenderThreads()
+                : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("qr-render-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueuedRenders()), threadFactory);
+        this.scheduler = Schedulers.fromExecutorService(executor, "qr-render");
+        log.info("Reactive renders on {} threads, up to {} queued", threads, config.getQueuedRenders());
+    }
+
+    /**
+     * Output rendered, or taken from the render cache, and the quality level
+     * it was served at
+     */
+    public record Rendered(QualityLevel level, RenderOutput output) {
+    }
+
+    /**
+     * Renders the key on the render pool under a quality admission, which
+     * counts the render as in flight from the moment it is queued. Output
+     * that finishes after the subscriber cancelled is closed, so its
+     * off-heap lease is not held until garbage collection.
+     */
+    public Mono<Rendered> render(RenderKey key) {
+        return Mono.defer(() -> {
+            Handoff handoff = new Handoff();
+            return Mono.using(qualityPolicy::admit,
+                    admission -> Mono.fromCallable(() -> {
+                        // Unknown styles are rejected before the cache lookup
+                        qrStyleRegistry.find(key.style());
+                        return handoff.offer(
+                                new Rendered(admission.level(), renderCache.getOutput(admission.apply(key))));
+                    }).subscribeOn(scheduler),
+                    AdaptiveQualityPolicy.Admission::close)
+                    .doOnNext(rendered -> handoff.delivered())
+                    .doOnCancel(handoff::cancelled);
+        });
+    }
+
+    /**
+     * Runs other blocking work, such as payload lookups or peer renders, on the render pool
+     */
+    public <T> Mono<T> call(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(scheduler);
+    }
+
+    /**
+     * Response body streaming the output in qrcode.reactive.chunk-bytes buffers
+     */
+    public Flux<DataBuffer> stream(RenderOutput output, DataBufferFactory bufferFactory) {
+        return RenderOutputPublisher.publish(output, bufferFactory, chunkBytes);
+    }
+
+    /**
+     * Maps render failures to the responses the servlet controllers give:
+     * 400 for invalid parameters, 500 for render errors, and 503 when the
+     * render queue is full; anything else is left to the exception handlers
+     */
+    public static <T> Mono<ResponseEntity<T>> failure(Throwable error, Object operation) {
+        if (error instanceof IllegalArgumentException) {
+            log.warn("Invalid parameters for {}: {}", operation, error.getMessage());
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (error instanceof RejectedExecutionException) {
+            log.warn("Render queue full, rejecting {}", operation);
+            return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").build());
+        }
+        if (error instanceof QRCodeGenerationException) {
+            log.error("Error rendering {}", operation, error);
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        }
+        return Mono.error(error);
+    }
+
+    /**
+     * Render pool counters for the debug endpoints
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("renderThreads", executor.getMaximumPoolSize());
+        stats.put("activeRenders", executor.getActiveCount());
+        stats.put("queuedRenders", executor.getQueue().size());
+        stats.put("completedRenders", executor.getCompletedTaskCount());
+        return stats;
+    }
+
+    /**
+     * Passes rendered output to one subscriber, or closes it if the
+     * subscriber cancelled first; Reactor drops a value that completes after
+     * cancellation without closing it
+     */
+    private static final class Handoff {
+
+        private static final Object DELIVERED = new Object();
+        private static final Object CANCELLED = new Object();
+
+        private final AtomicReference<Object> state = new AtomicReference<>();
+
+        Rendered offer(Rendered rendered) {
+            if (!state.compareAndSet(null, rendered)) {
+                rendered.output().close();
+            }
+            return rendered;
+        }
+
+        void delivered() {
+            state.set(DELIVERED);
+        }
+
+        void cancelled() {
+            if (state.getAndSet(CANCELLED) instanceof Rendered rendered) {
+                rendered.output().close();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
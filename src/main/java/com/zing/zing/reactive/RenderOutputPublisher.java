@@ -0,0 +1,41 @@
+package com.zing.zing.reactive;
+
+import java.nio.ByteBuffer;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import com.zing.zing.cache.RenderOutput;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams rendered output as response buffers on demand
+ * A buffer is filled only when the connection asks for one, so a slow client
+ * holds a single chunk rather than the whole output, and off-heap output is
+ * copied straight from its slab pages into the server's buffers. The output
+ * is closed once the stream completes, fails or is cancelled.
+ */
+public final class RenderOutputPublisher {
+
+    private RenderOutputPublisher() {
+    }
+
+    public static Flux<DataBuffer> publish(RenderOutput output, DataBufferFactory bufferFactory, int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkBytes);
+        }
+        return Flux.<DataBuffer, Integer>generate(() -> 0, (offset, sink) -> {
+            if (offset >= output.length()) {
+                sink.complete();
+                return offset;
+            }
+            ByteBuffer slice = output.slice(offset, chunkBytes);
+            int length = slice.remaining();
+            DataBuffer buffer = bufferFactory.allocateBuffer(length);
+            buffer.write(slice);
+            sink.next(buffer);
+            return offset + length;
+        }).doFinally(signal -> output.close());
+    }
+}
@@ -0,0 +1,71 @@
+package com.zing.zing.render;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded LRU cache of pre-rendered logo pixels per logo size
+ * Sprites are non-premultiplied ARGB arrays ready for ArrayCompositor, so the
+ * logo is loaded, converted and scaled once per size instead of per request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LogoSpriteCache {
+
+    private final QRCodeConfig qrCodeConfig;
+
+    private final Map<Integer, int[]> sprites = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * Returns the sprite for a square logo of the given size, rendering it with
+     * the supplied renderer on a miss. The renderer returns size x size ARGB
+     * pixels; the returned array must not be modified.
+     */
+    public int[] getSprite(int size, IntFunction<int[]> renderer) {
+        synchronized (sprites) {
+            int[] cached = sprites.get(size);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        int[] sprite = renderer.apply(size);
+        if (sprite.length != size * size) {
+            throw new IllegalStateException(
+                    "Logo sprite renderer returned " + sprite.length + " pixels for size " + size);
+        }
+        long spriteBytes = (long) sprite.length * Integer.BYTES;
+        long maxBytes = qrCodeConfig.getRender().getLogoCacheMaxBytes();
+
+        if (spriteBytes <= maxBytes) {
+            synchronized (sprites) {
+                int[] previous = sprites.put(size, sprite);
+                if (previous != null) {
+                    totalBytes -= (long) previous.length * Integer.BYTES;
+                }
+                totalBytes += spriteBytes;
+
+                Iterator<int[]> eldest = sprites.values().iterator();
+                while (totalBytes > maxBytes && eldest.hasNext()) {
+                    totalBytes -= (long) eldest.next().length * Integer.BYTES;
+                    eldest.remove();
+                }
+            }
+            log.debug("Cached logo sprite of size {} ({} bytes)", size, spriteBytes);
+        }
+
+        return sprite;
+    }
+}
@@ -0,0 +1,34 @@
+package com.zing.zing.render;
+
+/**
+ * Placement of a QR module grid inside an output raster, computed the same
+ * way as ZXing's QRCodeWriter: whole-pixel modules, centred, with at least
+ * the quiet zone around them. The raster grows if the requested size is too
+ * small to hold the symbol.
+ *
+ * @param dimension   Modules per side
+ * @param width       Output raster width in pixels
+ * @param height      Output raster height in pixels
+ * @param multiple    Pixels per module
+ * @param leftPadding Pixels left of the first module column
+ * @param topPadding  Pixels above the first module row
+ */
+public record ModuleLayout(int dimension, int width, int height, int multiple, int leftPadding, int topPadding) {
+
+    public static ModuleLayout of(int dimension, int width, int height, int margin) {
+        int qrSize = dimension + (margin * 2);
+        int outputWidth = Math.max(width, qrSize);
+        int outputHeight = Math.max(height, qrSize);
+        int multiple = Math.min(outputWidth / qrSize, outputHeight / qrSize);
+        int leftPadding = (outputWidth - (dimension * multiple)) / 2;
+        int topPadding = (outputHeight - (dimension * multiple)) / 2;
+        return new ModuleLayout(dimension, outputWidth, outputHeight, multiple, leftPadding, topPadding);
+    }
+
+    /**
+     * Side of the module grid in pixels, excluding the quiet zone
+     */
+    public int symbolSize() {
+        return dimension * multiple;
+    }
+}
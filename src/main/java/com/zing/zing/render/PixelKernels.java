@@ -0,0 +1,26 @@
+package com.zing.zing.render;
+
+/**
+ * Pixel loops used by the array rendering engine
+ * Pixels are packed 0xAARRGGBB ints, non-premultiplied. Implementations must
+ * produce bit-identical results so they can be swapped freely.
+ */
+public interface PixelKernels {
+
+    /**
+     * Composites length source pixels over the destination (SrcOver), leaving
+     * the destination opaque
+     */
+    void blendSrcOver(int[] dst, int dstOffset, int[] src, int srcOffset, int length);
+
+    /**
+     * Resamples an ARGB image: bilinear when enlarging, area-averaging when
+     * reducing, computed on premultiplied channels
+     */
+    int[] resample(int[] src, int srcWidth, int srcHeight, int dstWidth, int dstHeight);
+
+    /**
+     * Short name for logs and benchmarks
+     */
+    String name();
+}
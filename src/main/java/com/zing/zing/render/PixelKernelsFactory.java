@@ -0,0 +1,42 @@
+package com.zing.zing.render;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chooses the pixel kernels implementation at startup
+ * The vector implementation is loaded reflectively so this class, and the
+ * scalar fallback, work on JVMs started without jdk.incubator.vector.
+ */
+@Slf4j
+public final class PixelKernelsFactory {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS = "com.zing.zing.render.VectorPixelKernels";
+
+    private PixelKernelsFactory() {
+    }
+
+    /**
+     * Returns SIMD kernels when requested and available, scalar kernels otherwise
+     */
+    public static PixelKernels create(boolean simd) {
+        if (!simd) {
+            return new ScalarPixelKernels();
+        }
+
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.warn("SIMD rendering requested but {} is not available; start the JVM with "
+                    + "--add-modules {}. Using scalar kernels", VECTOR_MODULE, VECTOR_MODULE);
+            return new ScalarPixelKernels();
+        }
+
+        try {
+            PixelKernels kernels = (PixelKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            log.info("Using {} pixel kernels", kernels.name());
+            return kernels;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Could not initialise vector pixel kernels, using scalar kernels: {}", e.getMessage());
+            return new ScalarPixelKernels();
+        }
+    }
+}
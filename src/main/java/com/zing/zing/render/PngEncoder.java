@@ -0,0 +1,189 @@
+package com.zing.zing.render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal PNG encoder for QR rasters
+ * ImageIO's PNG writer copies every scanline into fresh arrays, close to 33MB
+ * for one 2000x2000 RGB image. This encoder filters rows straight from the
+ * raster's data array into per-thread scratch rows and deflates them with a
+ * per-thread Deflater, so the only per-image allocation is the output.
+ *
+ * Every row uses the Up filter: QR rasters repeat each scanline for the
+ * height of a module, so most filtered rows are all zero.
+ */
+public final class PngEncoder {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] IHDR = { 'I', 'H', 'D', 'R' };
+    private static final byte[] IDAT = { 'I', 'D', 'A', 'T' };
+    private static final byte[] IEND = { 'I', 'E', 'N', 'D' };
+
+    private static final int FILTER_UP = 2;
+    private static final int COMPRESSION_LEVEL = 6;
+    private static final int CHUNK_SIZE = 32 * 1024;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private PngEncoder() {
+    }
+
+    /**
+     * Whether the image can be encoded: TYPE_INT_RGB, or TYPE_BYTE_BINARY with
+     * the default black and white palette
+     */
+    public static boolean supports(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return true;
+        }
+        if (image.getType() != BufferedImage.TYPE_BYTE_BINARY
+                || !(image.getColorModel() instanceof IndexColorModel palette) || palette.getMapSize() != 2) {
+            return false;
+        }
+        return (palette.getRGB(0) & 0xFFFFFF) == 0 && (palette.getRGB(1) & 0xFFFFFF) == 0xFFFFFF;
+    }
+
+    /**
+     * Encodes the image as PNG, RGB for TYPE_INT_RGB and 1-bit grayscale for
+     * TYPE_BYTE_BINARY
+     *
+     * @throws IllegalArgumentException if the image type is not supported
+     */
+    public static void encode(BufferedImage image, ByteArrayOutputStream out) {
+        if (!supports(image)) {
+            throw new IllegalArgumentException("Unsupported PNG image type: " + image.getType());
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean rgb = image.getType() == BufferedImage.TYPE_INT_RGB;
+        int rowBytes = rgb ? width * 3 : (width + 7) / 8;
+
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureRowCapacity(rowBytes);
+        Deflater deflater = scratch.deflater;
+        deflater.reset();
+
+        out.writeBytes(SIGNATURE);
+        byte[] header = scratch.chunk;
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = (byte) (rgb ? 8 : 1);
+        header[9] = (byte) (rgb ? 2 : 0);
+        header[10] = 0;
+        header[11] = 0;
+        header[12] = 0;
+        writeChunk(out, scratch, IHDR, header, 13);
+
+        byte[] previous = scratch.previous;
+        byte[] current = scratch.current;
+        byte[] filtered = scratch.filtered;
+        Arrays.fill(previous, 0, rowBytes, (byte) 0);
+        int[] pixels = rgb ? ((DataBufferInt) image.getRaster().getDataBuffer()).getData() : null;
+        byte[] packed = rgb ? null : ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+        int pending = 0;
+        for (int y = 0; y < height; y++) {
+            if (rgb) {
+                for (int x = 0, i = y * width, o = 0; x < width; x++, i++) {
+                    int pixel = pixels[i];
+                    current[o++] = (byte) (pixel >> 16);
+                    current[o++] = (byte) (pixel >> 8);
+                    current[o++] = (byte) pixel;
+                }
+            } else {
+                System.arraycopy(packed, y * rowBytes, current, 0, rowBytes);
+            }
+
+            filtered[0] = FILTER_UP;
+            for (int i = 0; i < rowBytes; i++) {
+                filtered[i + 1] = (byte) (current[i] - previous[i]);
+            }
+            deflater.setInput(filtered, 0, rowBytes + 1);
+            pending = drain(out, scratch, pending, false);
+
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        deflater.finish();
+        pending = drain(out, scratch, pending, true);
+        if (pending > 0) {
+            writeChunk(out, scratch, IDAT, scratch.chunk, pending);
+        }
+        writeChunk(out, scratch, IEND, scratch.chunk, 0);
+
+        // Keep the swapped rows so the next call finds both arrays in place
+        scratch.previous = previous;
+        scratch.current = current;
+    }
+
+    /**
+     * Deflates buffered input into the chunk buffer, emitting an IDAT chunk
+     * each time it fills; returns the number of bytes left in the buffer
+     */
+    private static int drain(ByteArrayOutputStream out, Scratch scratch, int pending, boolean finishing) {
+        Deflater deflater = scratch.deflater;
+        while (finishing ? !deflater.finished() : !deflater.needsInput()) {
+            pending += deflater.deflate(scratch.chunk, pending, CHUNK_SIZE - pending);
+            if (pending == CHUNK_SIZE) {
+                writeChunk(out, scratch, IDAT, scratch.chunk, pending);
+                pending = 0;
+            }
+        }
+        return pending;
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, Scratch scratch, byte[] type, byte[] data,
+            int length) {
+        byte[] number = scratch.number;
+        writeInt(number, 0, length);
+        out.write(number, 0, 4);
+        out.writeBytes(type);
+        out.write(data, 0, length);
+
+        CRC32 crc = scratch.crc;
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, length);
+        writeInt(number, 0, (int) crc.getValue());
+        out.write(number, 0, 4);
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Per-thread rows, deflater and chunk buffer, grown to the widest image seen
+     */
+    private static final class Scratch {
+
+        final Deflater deflater = new Deflater(COMPRESSION_LEVEL);
+        final CRC32 crc = new CRC32();
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        final byte[] number = new byte[4];
+        byte[] previous = new byte[0];
+        byte[] current = new byte[0];
+        byte[] filtered = new byte[1];
+
+        void ensureRowCapacity(int rowBytes) {
+            if (previous.length < rowBytes) {
+                previous = new byte[rowBytes];
+                current = new byte[rowBytes];
+                filtered = new byte[rowBytes + 1];
+            }
+        }
+    }
+}
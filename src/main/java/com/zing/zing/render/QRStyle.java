@@ -0,0 +1,118 @@
+package com.zing.zing.render;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+
+/**
+ * Look of a styled QR code: colours and the shapes of modules and finder eyes
+ * Shapes are defined once here and drawn into sprites by StyleSprites and
+ * into path data by SvgWriter, so raster and vector output match.
+ *
+ * @param name        Name the style is selected by
+ * @param foreground  Dark module colour as 0xRRGGBB
+ * @param background  Light module and quiet zone colour as 0xRRGGBB
+ * @param modules     Shape of data, timing and alignment modules
+ * @param finders     Shape of the three 7x7 finder patterns
+ */
+public record QRStyle(String name, int foreground, int background, ModuleShape modules, FinderShape finders) {
+
+    /** Contrast ratio below which scanners start to miss codes */
+    public static final double MIN_CONTRAST = 3.0;
+
+    /** Modules per side of a finder pattern */
+    public static final int FINDER_MODULES = 7;
+
+    public QRStyle {
+        if (modules == null || finders == null) {
+            throw new IllegalArgumentException("Module and finder shapes are required");
+        }
+        if (luminance(foreground) >= luminance(background)) {
+            throw new IllegalArgumentException("Foreground must be darker than the background");
+        }
+        double contrast = contrast(foreground, background);
+        if (contrast < MIN_CONTRAST) {
+            throw new IllegalArgumentException(String.format(
+                    "Contrast between foreground and background is %.2f, at least %.1f is needed", contrast,
+                    MIN_CONTRAST));
+        }
+    }
+
+    public enum ModuleShape {
+        SQUARE,
+        /** Squares with corners rounded by a quarter of the module */
+        ROUNDED,
+        /** Circles of 90% of the module, leaving a gap between neighbours */
+        DOT;
+
+        /**
+         * Outline of one module in a square of the given side at the origin
+         */
+        public Shape outline(double size) {
+            return switch (this) {
+                case SQUARE -> new Rectangle2D.Double(0, 0, size, size);
+                case ROUNDED -> new RoundRectangle2D.Double(0, 0, size, size, size / 2, size / 2);
+                case DOT -> new Ellipse2D.Double(size * 0.05, size * 0.05, size * 0.9, size * 0.9);
+            };
+        }
+    }
+
+    public enum FinderShape {
+        SQUARE,
+        ROUNDED,
+        /** Concentric ring and dot */
+        DOT;
+
+        /**
+         * Outline of a finder pattern, outer ring and inner 3x3 eye, for the
+         * given module size at the origin
+         */
+        public Shape outline(double module) {
+            Area finder = new Area(part(0, 7, module));
+            finder.subtract(new Area(part(1, 5, module)));
+            finder.add(new Area(part(2, 3, module)));
+            return finder;
+        }
+
+        private Shape part(int offset, int modules, double module) {
+            double position = offset * module;
+            double size = modules * module;
+            return switch (this) {
+                case SQUARE -> new Rectangle2D.Double(position, position, size, size);
+                case ROUNDED -> new RoundRectangle2D.Double(position, position, size, size, size * 0.4, size * 0.4);
+                case DOT -> new Ellipse2D.Double(position, position, size, size);
+            };
+        }
+    }
+
+    /**
+     * Parses #RRGGBB or RRGGBB
+     */
+    public static int parseColor(String color) {
+        String hex = color != null && color.startsWith("#") ? color.substring(1) : color;
+        if (hex == null || !hex.matches("[0-9A-Fa-f]{6}")) {
+            throw new IllegalArgumentException("Colour must be #RRGGBB: " + color);
+        }
+        return Integer.parseInt(hex, 16);
+    }
+
+    /**
+     * WCAG contrast ratio between two colours, from 1 to 21
+     */
+    public static double contrast(int first, int second) {
+        double lighter = Math.max(luminance(first), luminance(second));
+        double darker = Math.min(luminance(first), luminance(second));
+        return (lighter + 0.05) / (darker + 0.05);
+    }
+
+    private static double luminance(int rgb) {
+        return 0.2126 * channel(rgb >> 16) + 0.7152 * channel(rgb >> 8) + 0.0722 * channel(rgb);
+    }
+
+    private static double channel(int value) {
+        double c = (value & 0xFF) / 255.0;
+        return c <= 0.03928 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+}
@@ -0,0 +1,68 @@
+package com.zing.zing.render;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Named styles from qrcode.styles.*, validated at startup
+ * A style whose colours would not scan fails the application start rather
+ * than the first request that selects it.
+ */
+@Component
+@Slf4j
+public class QRStyleRegistry {
+
+    private static final String NAME_PATTERN = "[a-z0-9-]{1,32}";
+
+    private final Map<String, QRStyle> styles;
+
+    public QRStyleRegistry(QRCodeConfig qrCodeConfig) {
+        Map<String, QRStyle> parsed = new TreeMap<>();
+        for (Map.Entry<String, QRCodeConfig.Style> entry : qrCodeConfig.getStyles().entrySet()) {
+            String name = entry.getKey();
+            QRCodeConfig.Style style = entry.getValue();
+            if (!name.matches(NAME_PATTERN)) {
+                throw new IllegalStateException("Style name must match " + NAME_PATTERN + ": " + name);
+            }
+            try {
+                parsed.put(name, new QRStyle(name, QRStyle.parseColor(style.getForeground()),
+                        QRStyle.parseColor(style.getBackground()), style.getModules(), style.getFinders()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid style " + name + ": " + e.getMessage(), e);
+            }
+        }
+        this.styles = Collections.unmodifiableMap(parsed);
+        if (!styles.isEmpty()) {
+            log.info("Loaded QR styles: {}", styles.keySet());
+        }
+    }
+
+    /**
+     * Returns the named style, or null for a blank name, which selects the
+     * plain black-on-white rendering
+     *
+     * @throws IllegalArgumentException if no style has that name
+     */
+    public QRStyle find(String name) {
+        if (!StringUtils.hasText(name)) {
+            return null;
+        }
+        QRStyle style = styles.get(name);
+        if (style == null) {
+            throw new IllegalArgumentException("Unknown style: " + name);
+        }
+        return style;
+    }
+
+    public Map<String, QRStyle> getStyles() {
+        return styles;
+    }
+}
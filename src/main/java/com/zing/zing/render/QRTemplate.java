@@ -0,0 +1,223 @@
+package com.zing.zing.render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import com.google.zxing.qrcode.decoder.Version;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+/**
+ * Pre-rendered base raster for one QR version and output size
+ * The quiet zone and the finder, timing, alignment and version patterns are
+ * painted once; rendering a code copies the base and paints only data modules.
+ * Module layout matches ZXing's QRCodeWriter so output is pixel-identical.
+ */
+public final class QRTemplate {
+
+    private static final int DARK_RGB = 0xFF000000;
+    private static final int LIGHT_RGB = 0xFFFFFFFF;
+
+    private final int dimension;
+    private final int width;
+    private final int height;
+    private final int multiple;
+    private final int leftPadding;
+    private final int topPadding;
+    private final int imageType;
+    private final boolean[] functionModules;
+    private final Object baseData;
+
+    private QRTemplate(int dimension, int width, int height, int multiple, int leftPadding, int topPadding,
+            int imageType, boolean[] functionModules) {
+        this.dimension = dimension;
+        this.width = width;
+        this.height = height;
+        this.multiple = multiple;
+        this.leftPadding = leftPadding;
+        this.topPadding = topPadding;
+        this.imageType = imageType;
+        this.functionModules = functionModules;
+        this.baseData = newData();
+    }
+
+    /**
+     * Builds the template for the version of the given module matrix
+     *
+     * @param version   QR version of the matrix
+     * @param matrix    Any encoded matrix of that version, used for pattern values
+     * @param width     Requested output width
+     * @param height    Requested output height
+     * @param margin    Quiet zone in modules
+     * @param imageType BufferedImage.TYPE_INT_RGB or BufferedImage.TYPE_BYTE_BINARY
+     */
+    public static QRTemplate build(Version version, ByteMatrix matrix, int width, int height, int margin,
+            int imageType) {
+        if (imageType != BufferedImage.TYPE_INT_RGB && imageType != BufferedImage.TYPE_BYTE_BINARY) {
+            throw new IllegalArgumentException("Unsupported template image type: " + imageType);
+        }
+
+        ModuleLayout layout = ModuleLayout.of(version.getDimensionForVersion(), width, height, margin);
+
+        QRTemplate template = new QRTemplate(layout.dimension(), layout.width(), layout.height(),
+                layout.multiple(), layout.leftPadding(), layout.topPadding(), imageType,
+                functionPatternMask(version));
+        template.fillLight(template.baseData);
+        template.paintModules(template.baseData, matrix, true);
+        return template;
+    }
+
+    /**
+     * Renders a module matrix of this template's version
+     */
+    public BufferedImage render(ByteMatrix matrix) {
+        return renderInto(matrix, new BufferedImage(width, height, imageType));
+    }
+
+    /**
+     * Renders a module matrix of this template's version into an existing
+     * raster of this template's size and type, overwriting every pixel
+     */
+    public BufferedImage renderInto(ByteMatrix matrix, BufferedImage image) {
+        if (image.getWidth() != width || image.getHeight() != height || image.getType() != imageType) {
+            throw new IllegalArgumentException("Raster " + image.getWidth() + "x" + image.getHeight() + " type "
+                    + image.getType() + " does not match template " + width + "x" + height + " type " + imageType);
+        }
+        Object data = imageData(image);
+        System.arraycopy(baseData, 0, data, 0, dataLength());
+        paintModules(data, matrix, false);
+        return image;
+    }
+
+    /**
+     * Approximate heap footprint of the base raster in bytes
+     */
+    public long sizeInBytes() {
+        return imageType == BufferedImage.TYPE_INT_RGB ? (long) dataLength() * Integer.BYTES : dataLength();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Paints dark modules row by row: the first scanline of each module row is
+     * painted, then copied to the remaining scanlines of that row
+     */
+    private void paintModules(Object data, ByteMatrix matrix, boolean functionPatterns) {
+        byte[][] modules = matrix.getArray();
+        int stride = scanlineStride();
+
+        for (int moduleY = 0; moduleY < dimension; moduleY++) {
+            byte[] moduleRow = modules[moduleY];
+            int rowBase = moduleY * dimension;
+            int outputY = topPadding + moduleY * multiple;
+            int rowOffset = outputY * stride;
+
+            for (int moduleX = 0; moduleX < dimension; moduleX++) {
+                if (functionModules[rowBase + moduleX] == functionPatterns && moduleRow[moduleX] == 1) {
+                    paintDarkRun(data, rowOffset, leftPadding + moduleX * multiple, multiple);
+                }
+            }
+
+            for (int copy = 1; copy < multiple; copy++) {
+                System.arraycopy(data, rowOffset, data, rowOffset + copy * stride, stride);
+            }
+        }
+    }
+
+    private void paintDarkRun(Object data, int rowOffset, int x, int length) {
+        if (imageType == BufferedImage.TYPE_INT_RGB) {
+            Arrays.fill((int[]) data, rowOffset + x, rowOffset + x + length, DARK_RGB);
+            return;
+        }
+
+        // TYPE_BYTE_BINARY packs 8 pixels per byte, most significant bit first; 0 is black
+        byte[] bytes = (byte[]) data;
+        for (int px = x; px < x + length; px++) {
+            bytes[rowOffset + (px >> 3)] &= (byte) ~(0x80 >>> (px & 7));
+        }
+    }
+
+    private void fillLight(Object data) {
+        if (imageType == BufferedImage.TYPE_INT_RGB) {
+            Arrays.fill((int[]) data, LIGHT_RGB);
+        } else {
+            Arrays.fill((byte[]) data, (byte) 0xFF);
+        }
+    }
+
+    private Object newData() {
+        return imageType == BufferedImage.TYPE_INT_RGB ? new int[dataLength()] : new byte[dataLength()];
+    }
+
+    private Object imageData(BufferedImage image) {
+        if (imageType == BufferedImage.TYPE_INT_RGB) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        return ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    }
+
+    private int scanlineStride() {
+        return imageType == BufferedImage.TYPE_INT_RGB ? width : (width + 7) / 8;
+    }
+
+    private int dataLength() {
+        return scanlineStride() * height;
+    }
+
+    /**
+     * Marks the modules that are identical for every code of a version: finder
+     * patterns with separators, timing patterns, alignment patterns, the dark
+     * module and version information. Format information depends on the mask
+     * and is left to the per-code pass.
+     */
+    static boolean[] functionPatternMask(Version version) {
+        int dimension = version.getDimensionForVersion();
+        boolean[] mask = new boolean[dimension * dimension];
+
+        // Finder patterns and their separators
+        markRegion(mask, dimension, 0, 0, 8, 8);
+        markRegion(mask, dimension, dimension - 8, 0, 8, 8);
+        markRegion(mask, dimension, 0, dimension - 8, 8, 8);
+
+        // Alignment patterns, except where they would overlap a finder pattern
+        int[] centers = version.getAlignmentPatternCenters();
+        for (int centerY : centers) {
+            for (int centerX : centers) {
+                if (!mask[centerY * dimension + centerX]) {
+                    markRegion(mask, dimension, centerX - 2, centerY - 2, 5, 5);
+                }
+            }
+        }
+
+        // Timing patterns
+        for (int i = 8; i < dimension - 8; i++) {
+            mask[6 * dimension + i] = true;
+            mask[i * dimension + 6] = true;
+        }
+
+        // Dark module above the bottom-left format information
+        mask[(dimension - 8) * dimension + 8] = true;
+
+        // Version information blocks for version 7 and above
+        if (version.getVersionNumber() >= 7) {
+            markRegion(mask, dimension, 0, dimension - 11, 6, 3);
+            markRegion(mask, dimension, dimension - 11, 0, 3, 6);
+        }
+
+        return mask;
+    }
+
+    private static void markRegion(boolean[] mask, int dimension, int left, int top, int regionWidth,
+            int regionHeight) {
+        for (int y = top; y < top + regionHeight; y++) {
+            Arrays.fill(mask, y * dimension + left, y * dimension + left + regionWidth, true);
+        }
+    }
+}
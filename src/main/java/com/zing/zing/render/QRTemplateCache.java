@@ -0,0 +1,93 @@
+package com.zing.zing.render;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.google.zxing.qrcode.encoder.QRCode;
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded LRU cache of QR base rasters keyed by version, output size, quiet
+ * zone and image type. The bound is on total raster bytes since a 2000x2000
+ * RGB template alone is 16MB.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QRTemplateCache {
+
+    private final QRCodeConfig qrCodeConfig;
+
+    private final Map<TemplateKey, QRTemplate> templates = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * Renders an encoded QR code using the cached template for its version and size
+     */
+    public BufferedImage render(QRCode qrCode, int width, int height, int margin, int imageType) {
+        return getTemplate(qrCode, width, height, margin, imageType).render(qrCode.getMatrix());
+    }
+
+    /**
+     * Returns the template for the code's version and the given size, building it on a miss
+     */
+    public QRTemplate getTemplate(QRCode qrCode, int width, int height, int margin, int imageType) {
+        QRCodeConfig.Templates config = qrCodeConfig.getTemplates();
+        TemplateKey key = new TemplateKey(qrCode.getVersion().getVersionNumber(), width, height, margin, imageType);
+
+        if (config.isEnabled()) {
+            synchronized (templates) {
+                QRTemplate cached = templates.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+
+        // Built outside the lock; a concurrent miss on the same key just builds twice
+        QRTemplate template = QRTemplate.build(qrCode.getVersion(), qrCode.getMatrix(), width, height, margin,
+                imageType);
+
+        if (config.isEnabled() && template.sizeInBytes() <= config.getMaxBytes()) {
+            synchronized (templates) {
+                QRTemplate previous = templates.put(key, template);
+                if (previous != null) {
+                    totalBytes -= previous.sizeInBytes();
+                }
+                totalBytes += template.sizeInBytes();
+                evictToLimit(config.getMaxBytes());
+            }
+            log.debug("Cached QR template {} ({} bytes)", key, template.sizeInBytes());
+        }
+
+        return template;
+    }
+
+    /**
+     * Current number of cached templates and their total size
+     */
+    public Map<String, Object> stats() {
+        synchronized (templates) {
+            return Map.of("templates", templates.size(), "bytes", totalBytes);
+        }
+    }
+
+    private void evictToLimit(long maxBytes) {
+        Iterator<QRTemplate> eldest = templates.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().sizeInBytes();
+            eldest.remove();
+        }
+    }
+
+    private record TemplateKey(int version, int width, int height, int margin, int imageType) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.zing.zing.render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.config.QRCodeConfig;
+
+/**
+ * Reusable output rasters and encode buffers for the render hot path
+ * Rasters are pooled per exact size and image type, bounded by total bytes,
+ * since a 2000x2000 RGB raster alone is 16MB. Output buffers live in a small
+ * striped array so threads rarely contend; a buffer keeps its grown capacity
+ * between renders, so PNG and PDF encoding stop doubling from 32 bytes.
+ * Released objects must not be used again; objects that are never released
+ * are simply garbage collected.
+ */
+@Component
+public class RenderBufferPool {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final QRCodeConfig.Pool config;
+
+    private final Map<RasterKey, ConcurrentLinkedDeque<BufferedImage>> rasters = new ConcurrentHashMap<>();
+    private final AtomicLong pooledRasterBytes = new AtomicLong();
+    private final AtomicReferenceArray<Buffer> buffers;
+
+    private final LongAdder rasterHits = new LongAdder();
+    private final LongAdder rasterMisses = new LongAdder();
+    private final LongAdder bufferHits = new LongAdder();
+    private final LongAdder bufferMisses = new LongAdder();
+
+    public RenderBufferPool(QRCodeConfig qrCodeConfig) {
+        this.config = qrCodeConfig.getPool();
+        this.buffers = new AtomicReferenceArray<>(Math.max(1, config.getBufferStripes()));
+    }
+
+    /**
+     * Returns a raster of the given size and type; its pixels are undefined
+     */
+    public BufferedImage acquireImage(int width, int height, int imageType) {
+        if (config.isEnabled()) {
+            ConcurrentLinkedDeque<BufferedImage> pooled = rasters.get(new RasterKey(width, height, imageType));
+            BufferedImage image = pooled != null ? pooled.pollFirst() : null;
+            if (image != null) {
+                pooledRasterBytes.addAndGet(-rasterBytes(image));
+                rasterHits.increment();
+                return image;
+            }
+        }
+        rasterMisses.increment();
+        return new BufferedImage(width, height, imageType);
+    }
+
+    /**
+     * Returns a raster to the pool, dropping it if the pool is full
+     */
+    public void releaseImage(BufferedImage image) {
+        if (image == null || !config.isEnabled()) {
+            return;
+        }
+
+        long bytes = rasterBytes(image);
+        long total = pooledRasterBytes.addAndGet(bytes);
+        if (total > config.getMaxRasterBytes()) {
+            pooledRasterBytes.addAndGet(-bytes);
+            return;
+        }
+        rasters.computeIfAbsent(new RasterKey(image.getWidth(), image.getHeight(), image.getType()),
+                key -> new ConcurrentLinkedDeque<>()).offerFirst(image);
+    }
+
+    /**
+     * Returns an empty output buffer
+     */
+    public Buffer acquireBuffer() {
+        if (config.isEnabled()) {
+            int stripes = buffers.length();
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                Buffer buffer = buffers.getAndSet((start + i) % stripes, null);
+                if (buffer != null) {
+                    bufferHits.increment();
+                    buffer.reset();
+                    return buffer;
+                }
+            }
+        }
+        bufferMisses.increment();
+        return new Buffer(INITIAL_BUFFER_SIZE);
+    }
+
+    /**
+     * Returns a buffer to the pool; buffers grown beyond the bound are dropped
+     */
+    public void releaseBuffer(Buffer buffer) {
+        if (buffer == null || !config.isEnabled() || buffer.capacity() > config.getMaxBufferBytes()) {
+            return;
+        }
+        int stripes = buffers.length();
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (buffers.compareAndSet((start + i) % stripes, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Pool counters and pooled raster bytes
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rasterHits", rasterHits.sum());
+        stats.put("rasterMisses", rasterMisses.sum());
+        stats.put("pooledRasterBytes", pooledRasterBytes.get());
+        stats.put("bufferHits", bufferHits.sum());
+        stats.put("bufferMisses", bufferMisses.sum());
+        return stats;
+    }
+
+    private static long rasterBytes(BufferedImage image) {
+        DataBuffer data = image.getRaster().getDataBuffer();
+        return (long) data.getSize() * DataBuffer.getDataTypeSize(data.getDataType()) / 8;
+    }
+
+    private record RasterKey(int width, int height, int imageType) {
+    }
+
+    /**
+     * Byte stream whose backing array survives reset
+     */
+    public static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int size) {
+            super(size);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.zing.zing.render;
+
+/**
+ * Fixed-point filter taps for resampling one axis
+ * Each output index reads a contiguous run of input indices whose weights
+ * sum to ONE. A tent filter is used whose support grows with the reduction
+ * factor, so it is bilinear when enlarging and area-averaging when reducing.
+ */
+final class ResampleWeights {
+
+    static final int BITS = 14;
+    static final int ONE = 1 << BITS;
+    static final int HALF = 1 << (BITS - 1);
+
+    final int[] start;
+    final int[] count;
+    final int[] weights;
+    final int maxTaps;
+
+    private ResampleWeights(int[] start, int[] count, int[] weights, int maxTaps) {
+        this.start = start;
+        this.count = count;
+        this.weights = weights;
+        this.maxTaps = maxTaps;
+    }
+
+    static ResampleWeights tent(int srcLength, int dstLength) {
+        double scale = (double) srcLength / dstLength;
+        double support = Math.max(1.0, scale);
+        int maxTaps = (int) Math.ceil(support * 2) + 1;
+
+        int[] start = new int[dstLength];
+        int[] count = new int[dstLength];
+        int[] weights = new int[dstLength * maxTaps];
+        double[] raw = new double[maxTaps];
+
+        for (int i = 0; i < dstLength; i++) {
+            double center = (i + 0.5) * scale - 0.5;
+            int first = Math.max(0, (int) Math.floor(center - support) + 1);
+            int last = Math.min(srcLength - 1, (int) Math.ceil(center + support) - 1);
+            if (last < first) {
+                // Outside the source on enlarged edges; replicate the nearest pixel
+                first = last = Math.min(srcLength - 1, Math.max(0, (int) Math.round(center)));
+            }
+            int taps = Math.min(last - first + 1, maxTaps);
+
+            double total = 0;
+            for (int k = 0; k < taps; k++) {
+                raw[k] = Math.max(0.0, 1.0 - Math.abs(first + k - center) / support);
+                total += raw[k];
+            }
+
+            int assigned = 0;
+            int heaviest = 0;
+            for (int k = 0; k < taps; k++) {
+                int weight = total > 0 ? (int) Math.round(raw[k] / total * ONE) : (k == 0 ? ONE : 0);
+                weights[i * maxTaps + k] = weight;
+                assigned += weight;
+                if (weight > weights[i * maxTaps + heaviest]) {
+                    heaviest = k;
+                }
+            }
+            // Put the rounding remainder on the heaviest tap so every row sums to ONE
+            weights[i * maxTaps + heaviest] += ONE - assigned;
+
+            start[i] = first;
+            count[i] = taps;
+        }
+
+        return new ResampleWeights(start, count, weights, maxTaps);
+    }
+}
@@ -0,0 +1,135 @@
+package com.zing.zing.render;
+
+/**
+ * Portable pixel loops; also the fallback when the Vector API is unavailable
+ */
+public class ScalarPixelKernels implements PixelKernels {
+
+    @Override
+    public void blendSrcOver(int[] dst, int dstOffset, int[] src, int srcOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] = blendPixel(dst[dstOffset + i], src[srcOffset + i]);
+        }
+    }
+
+    @Override
+    public int[] resample(int[] src, int srcWidth, int srcHeight, int dstWidth, int dstHeight) {
+        ResampleWeights horizontal = ResampleWeights.tent(srcWidth, dstWidth);
+        ResampleWeights vertical = ResampleWeights.tent(srcHeight, dstHeight);
+
+        int[][] planes = premultiply(src);
+        int[] result = new int[dstWidth * dstHeight];
+        int[][] resampled = new int[4][];
+
+        for (int channel = 0; channel < 4; channel++) {
+            int[] rows = new int[dstWidth * srcHeight];
+            horizontalPass(planes[channel], rows, horizontal, srcWidth, dstWidth, srcHeight);
+
+            resampled[channel] = new int[dstWidth * dstHeight];
+            verticalPass(rows, resampled[channel], vertical, dstWidth, dstHeight);
+        }
+
+        unpremultiply(resampled, result);
+        return result;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    /**
+     * Filters each row along x; in is srcWidth x height, out is dstWidth x height
+     */
+    protected void horizontalPass(int[] in, int[] out, ResampleWeights weights, int srcWidth, int dstWidth,
+            int height) {
+        for (int y = 0; y < height; y++) {
+            int inRow = y * srcWidth;
+            int outRow = y * dstWidth;
+            for (int x = 0; x < dstWidth; x++) {
+                int first = inRow + weights.start[x];
+                int tapBase = x * weights.maxTaps;
+                int acc = 0;
+                for (int k = 0; k < weights.count[x]; k++) {
+                    acc += in[first + k] * weights.weights[tapBase + k];
+                }
+                out[outRow + x] = (acc + ResampleWeights.HALF) >> ResampleWeights.BITS;
+            }
+        }
+    }
+
+    /**
+     * Filters each column along y; in is width x srcHeight, out is width x dstHeight
+     */
+    protected void verticalPass(int[] in, int[] out, ResampleWeights weights, int width, int dstHeight) {
+        for (int y = 0; y < dstHeight; y++) {
+            verticalPassRow(in, out, weights, width, y, 0);
+        }
+    }
+
+    /**
+     * Scalar vertical filter for one output row from column fromX onwards
+     */
+    protected final void verticalPassRow(int[] in, int[] out, ResampleWeights weights, int width, int y,
+            int fromX) {
+        int first = weights.start[y];
+        int tapBase = y * weights.maxTaps;
+        int outRow = y * width;
+        for (int x = fromX; x < width; x++) {
+            int acc = 0;
+            for (int k = 0; k < weights.count[y]; k++) {
+                acc += in[(first + k) * width + x] * weights.weights[tapBase + k];
+            }
+            out[outRow + x] = (acc + ResampleWeights.HALF) >> ResampleWeights.BITS;
+        }
+    }
+
+    /**
+     * SrcOver of one non-premultiplied source pixel onto an opaque destination
+     */
+    static int blendPixel(int dst, int src) {
+        int alpha = src >>> 24;
+        if (alpha == 0xFF) {
+            return src;
+        }
+        if (alpha == 0) {
+            return 0xFF000000 | dst;
+        }
+        return ArrayCompositor.blend(dst, src, alpha);
+    }
+
+    private static int[][] premultiply(int[] src) {
+        int[][] planes = new int[4][src.length];
+        for (int i = 0; i < src.length; i++) {
+            int argb = src[i];
+            int alpha = argb >>> 24;
+            planes[0][i] = alpha;
+            planes[1][i] = div255(((argb >> 16) & 0xFF) * alpha);
+            planes[2][i] = div255(((argb >> 8) & 0xFF) * alpha);
+            planes[3][i] = div255((argb & 0xFF) * alpha);
+        }
+        return planes;
+    }
+
+    private static void unpremultiply(int[][] planes, int[] out) {
+        for (int i = 0; i < out.length; i++) {
+            int alpha = planes[0][i];
+            if (alpha == 0) {
+                out[i] = 0;
+                continue;
+            }
+            int r = Math.min(255, (planes[1][i] * 255 + alpha / 2) / alpha);
+            int g = Math.min(255, (planes[2][i] * 255 + alpha / 2) / alpha);
+            int b = Math.min(255, (planes[3][i] * 255 + alpha / 2) / alpha);
+            out[i] = (alpha << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    /**
+     * Rounded division by 255, exact for 0 <= value <= 255 * 255
+     */
+    static int div255(int value) {
+        int t = value + 128;
+        return (t + (t >> 8)) >> 8;
+    }
+}
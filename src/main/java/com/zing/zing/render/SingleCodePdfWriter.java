@@ -0,0 +1,291 @@
+package com.zing.zing.render;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.zip.Deflater;
+
+import org.springframework.stereotype.Component;
+
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+/**
+ * Writes a one-page A4 PDF holding a single QR code without building an iText
+ * document. The catalog, page tree and page objects are a prebuilt prefix;
+ * each request only appends the content stream, the module image and the
+ * cross-reference table. Modules are embedded as a 1-bit image with one
+ * sample per module, the logo backplate as a vector circle and the logo as a
+ * cached RGB image with soft mask.
+ *
+ * Placement matches the iText path: the code is drawn at the size
+ * Image.scaleToFit would give the PNG, centred horizontally inside the 36pt
+ * margins and hanging from the top margin.
+ */
+@Component
+public class SingleCodePdfWriter {
+
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int PAGE_MARGIN = 36;
+    private static final int LOGO_CACHE_SIZE = 32;
+    private static final double BEZIER_CIRCLE = 0.5523;
+
+    private static final Prefix PLAIN_PREFIX = Prefix.build("/XObject << /Qr 5 0 R >>");
+    private static final Prefix LOGO_PREFIX = Prefix.build("/XObject << /Qr 5 0 R /Logo 6 0 R >>");
+
+    private final Map<Integer, EncodedLogo> logos = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, EncodedLogo> eldest) {
+            return size() > LOGO_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Writes a PDF for the given modules
+     *
+     * @param modules       Encoded module matrix
+     * @param layout        Raster layout the PNG path would use
+     * @param displayWidth  Width the image is fitted into, in points
+     * @param displayHeight Height the image is fitted into, in points
+     */
+    public byte[] write(ByteMatrix modules, ModuleLayout layout, float displayWidth, float displayHeight) {
+        return write(modules, layout, displayWidth, displayHeight, null);
+    }
+
+    /**
+     * Writes a PDF for the given modules with the logo centred on the code
+     *
+     * @param logoSprites Supplies size x size ARGB logo pixels on a cache miss
+     */
+    public byte[] writeWithLogo(ByteMatrix modules, ModuleLayout layout, float displayWidth, float displayHeight,
+            IntFunction<int[]> logoSprites) {
+        return write(modules, layout, displayWidth, displayHeight, logoSprites);
+    }
+
+    private byte[] write(ByteMatrix modules, ModuleLayout layout, float displayWidth, float displayHeight,
+            IntFunction<int[]> logoSprites) {
+        // Same scale Image.scaleToFit applies to a PNG of layout.width() x layout.height() pixels
+        double scale = Math.min(displayWidth / layout.width(), displayHeight / layout.height());
+        double imageX = PAGE_MARGIN + (PAGE_WIDTH - 2 * PAGE_MARGIN - layout.width() * scale) / 2;
+        double imageTop = PAGE_HEIGHT - PAGE_MARGIN;
+        Placement placement = new Placement(imageX, imageTop, scale);
+
+        StringBuilder content = new StringBuilder(256);
+        double symbol = layout.symbolSize() * scale;
+        content.append("q ").append(number(symbol)).append(" 0 0 ").append(number(symbol)).append(' ')
+                .append(number(placement.x(layout.leftPadding()))).append(' ')
+                .append(number(placement.y(layout.topPadding() + layout.symbolSize())))
+                .append(" cm /Qr Do Q\n");
+
+        EncodedLogo logo = null;
+        if (logoSprites != null) {
+            int logoSize = Math.min(layout.width(), layout.height()) / 4;
+            int logoX = (layout.width() - logoSize) / 2;
+            int logoY = (layout.height() - logoSize) / 2;
+            int padding = logoSize / 10;
+
+            appendCircle(content, placement, logoX + logoSize / 2.0, logoY + logoSize / 2.0,
+                    logoSize / 2.0 + padding);
+            double logoExtent = logoSize * scale;
+            content.append("q ").append(number(logoExtent)).append(" 0 0 ").append(number(logoExtent)).append(' ')
+                    .append(number(placement.x(logoX))).append(' ').append(number(placement.y(logoY + logoSize)))
+                    .append(" cm /Logo Do Q\n");
+
+            logo = encodedLogo(logoSize, logoSprites);
+        }
+
+        return assemble(logo != null ? LOGO_PREFIX : PLAIN_PREFIX,
+                content.toString().getBytes(StandardCharsets.US_ASCII), modules.getWidth(), moduleImage(modules),
+                logo);
+    }
+
+    private byte[] assemble(Prefix prefix, byte[] content, int dimension, byte[] moduleImage, EncodedLogo logo) {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(prefix.bytes.length + content.length
+                + moduleImage.length + (logo != null ? logo.rgb.length + logo.alpha.length : 0) + 1024);
+        pdf.writeBytes(prefix.bytes);
+
+        int objectCount = logo != null ? 7 : 5;
+        long[] offsets = Arrays.copyOf(prefix.offsets, objectCount + 1);
+
+        offsets[4] = pdf.size();
+        writeStream(pdf, 4, "", content);
+
+        offsets[5] = pdf.size();
+        writeStream(pdf, 5, "/Type /XObject /Subtype /Image /Width " + dimension + " /Height " + dimension
+                + " /ColorSpace /DeviceGray /BitsPerComponent 1 /Filter /FlateDecode ", moduleImage);
+
+        if (logo != null) {
+            offsets[6] = pdf.size();
+            writeStream(pdf, 6, "/Type /XObject /Subtype /Image /Width " + logo.size + " /Height " + logo.size
+                    + " /ColorSpace /DeviceRGB /BitsPerComponent 8 /SMask 7 0 R /Filter /FlateDecode ", logo.rgb);
+            offsets[7] = pdf.size();
+            writeStream(pdf, 7, "/Type /XObject /Subtype /Image /Width " + logo.size + " /Height " + logo.size
+                    + " /ColorSpace /DeviceGray /BitsPerComponent 8 /Filter /FlateDecode ", logo.alpha);
+        }
+
+        long xref = pdf.size();
+        StringBuilder trailer = new StringBuilder(64 + objectCount * 20);
+        trailer.append("xref\n0 ").append(objectCount + 1).append("\n0000000000 65535 f\r\n");
+        for (int object = 1; object <= objectCount; object++) {
+            appendZeroPadded(trailer, offsets[object], 10).append(" 00000 n\r\n");
+        }
+        trailer.append("trailer\n<< /Size ").append(objectCount + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        pdf.writeBytes(trailer.toString().getBytes(StandardCharsets.US_ASCII));
+
+        return pdf.toByteArray();
+    }
+
+    /**
+     * Packs modules one bit per sample, 0 for dark, rows padded to whole bytes,
+     * and deflates them
+     */
+    private static byte[] moduleImage(ByteMatrix modules) {
+        int dimension = modules.getWidth();
+        int stride = (dimension + 7) / 8;
+        byte[] packed = new byte[stride * dimension];
+        Arrays.fill(packed, (byte) 0xFF);
+
+        byte[][] rows = modules.getArray();
+        for (int y = 0; y < dimension; y++) {
+            byte[] row = rows[y];
+            for (int x = 0; x < dimension; x++) {
+                if (row[x] == 1) {
+                    packed[y * stride + (x >> 3)] &= (byte) ~(0x80 >>> (x & 7));
+                }
+            }
+        }
+
+        return deflate(packed);
+    }
+
+    private EncodedLogo encodedLogo(int size, IntFunction<int[]> logoSprites) {
+        synchronized (logos) {
+            EncodedLogo cached = logos.get(size);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        int[] sprite = logoSprites.apply(size);
+        byte[] rgb = new byte[sprite.length * 3];
+        byte[] alpha = new byte[sprite.length];
+        for (int i = 0; i < sprite.length; i++) {
+            int argb = sprite[i];
+            rgb[i * 3] = (byte) (argb >> 16);
+            rgb[i * 3 + 1] = (byte) (argb >> 8);
+            rgb[i * 3 + 2] = (byte) argb;
+            alpha[i] = (byte) (argb >>> 24);
+        }
+
+        EncodedLogo logo = new EncodedLogo(size, deflate(rgb), deflate(alpha));
+        synchronized (logos) {
+            logos.put(size, logo);
+        }
+        return logo;
+    }
+
+    private static void appendCircle(StringBuilder content, Placement placement, double centerX, double centerY,
+            double radius) {
+        double cx = placement.x(centerX);
+        double cy = placement.y(centerY);
+        double r = radius * placement.scale();
+        double k = r * BEZIER_CIRCLE;
+
+        content.append("1 g\n")
+                .append(number(cx + r)).append(' ').append(number(cy)).append(" m\n");
+        appendCurve(content, cx + r, cy + k, cx + k, cy + r, cx, cy + r);
+        appendCurve(content, cx - k, cy + r, cx - r, cy + k, cx - r, cy);
+        appendCurve(content, cx - r, cy - k, cx - k, cy - r, cx, cy - r);
+        appendCurve(content, cx + k, cy - r, cx + r, cy - k, cx + r, cy);
+        content.append("f\n");
+    }
+
+    private static void appendCurve(StringBuilder content, double... points) {
+        for (double point : points) {
+            content.append(number(point)).append(' ');
+        }
+        content.append("c\n");
+    }
+
+    private static void writeStream(ByteArrayOutputStream pdf, int object, String dictionary, byte[] data) {
+        String header = object + " 0 obj\n<< " + dictionary + "/Length " + data.length + " >>\nstream\n";
+        pdf.writeBytes(header.getBytes(StandardCharsets.US_ASCII));
+        pdf.writeBytes(data);
+        pdf.writeBytes("\nendstream\nendobj\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static StringBuilder appendZeroPadded(StringBuilder out, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            out.append('0');
+        }
+        return out.append(digits);
+    }
+
+    private static String number(double value) {
+        return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Maps raster pixel coordinates, origin top-left, to PDF user space
+     */
+    private record Placement(double imageX, double imageTop, double scale) {
+
+        double x(double rasterX) {
+            return imageX + rasterX * scale;
+        }
+
+        double y(double rasterY) {
+            return imageTop - rasterY * scale;
+        }
+    }
+
+    private record EncodedLogo(int size, byte[] rgb, byte[] alpha) {
+    }
+
+    /**
+     * Header, catalog, page tree and page objects, identical for every code
+     */
+    private record Prefix(byte[] bytes, long[] offsets) {
+
+        static Prefix build(String xObjects) {
+            String[] objects = {
+                    "<< /Type /Catalog /Pages 2 0 R >>",
+                    "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+                    "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                            + " /Resources << " + xObjects + " >> /Contents 4 0 R >>"
+            };
+
+            StringBuilder prefix = new StringBuilder("%PDF-1.4\n%âãÏÓ\n");
+            long[] offsets = new long[4];
+            for (int i = 0; i < objects.length; i++) {
+                offsets[i + 1] = prefix.length();
+                prefix.append(i + 1).append(" 0 obj\n").append(objects[i]).append("\nendobj\n");
+            }
+            return new Prefix(prefix.toString().getBytes(StandardCharsets.ISO_8859_1), offsets);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.zing.zing.render;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.config.QRCodeConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded LRU cache of style sprites per style and module size
+ * A style is rendered once per module size, so a styled code costs the same
+ * array copies as a plain one whatever its shapes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StyleSpriteCache {
+
+    private final QRCodeConfig qrCodeConfig;
+
+    private final Map<Key, StyleSprites> sprites = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * Returns the sprites of the style for modules of the given size,
+     * rendering them on a miss
+     */
+    public StyleSprites getSprites(QRStyle style, int multiple) {
+        Key key = new Key(style, multiple);
+        synchronized (sprites) {
+            StyleSprites cached = sprites.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        StyleSprites rendered = StyleSprites.render(style, multiple);
+        long spriteBytes = rendered.sizeInBytes();
+        long maxBytes = qrCodeConfig.getRender().getStyleCacheMaxBytes();
+
+        if (spriteBytes <= maxBytes) {
+            synchronized (sprites) {
+                StyleSprites previous = sprites.put(key, rendered);
+                if (previous != null) {
+                    totalBytes -= previous.sizeInBytes();
+                }
+                totalBytes += spriteBytes;
+
+                Iterator<StyleSprites> eldest = sprites.values().iterator();
+                while (totalBytes > maxBytes && eldest.hasNext()) {
+                    totalBytes -= eldest.next().sizeInBytes();
+                    eldest.remove();
+                }
+            }
+            log.debug("Cached sprites of style {} for {}px modules ({} bytes)", style.name(), multiple,
+                    spriteBytes);
+        }
+
+        return rendered;
+    }
+
+    private record Key(QRStyle style, int multiple) {
+    }
+}
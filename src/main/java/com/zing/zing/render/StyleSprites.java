@@ -0,0 +1,130 @@
+package com.zing.zing.render;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+/**
+ * A style's module and finder shapes pre-rendered for one module size
+ * Sprites are anti-aliased once, already composited over the background, so
+ * painting a code is an array fill and one System.arraycopy per sprite row;
+ * no Graphics2D shape is drawn per module.
+ */
+public final class StyleSprites {
+
+    private final QRStyle style;
+    private final int multiple;
+    private final int[] module;
+    private final int[] finder;
+
+    private StyleSprites(QRStyle style, int multiple, int[] module, int[] finder) {
+        this.style = style;
+        this.multiple = multiple;
+        this.module = module;
+        this.finder = finder;
+    }
+
+    /**
+     * Renders the sprites of a style for modules of the given size in pixels
+     */
+    public static StyleSprites render(QRStyle style, int multiple) {
+        if (multiple <= 0) {
+            throw new IllegalArgumentException("Module size must be positive: " + multiple);
+        }
+        int[] module = draw(style, multiple, graphics -> graphics.fill(style.modules().outline(multiple)));
+        int[] finder = draw(style, multiple * QRStyle.FINDER_MODULES,
+                graphics -> graphics.fill(style.finders().outline(multiple)));
+        return new StyleSprites(style, multiple, module, finder);
+    }
+
+    private static int[] draw(QRStyle style, int size, Consumer<Graphics2D> painter) {
+        BufferedImage sprite = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = sprite.createGraphics();
+        try {
+            graphics.setColor(new Color(style.background()));
+            graphics.fillRect(0, 0, size, size);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            graphics.setColor(new Color(style.foreground()));
+            painter.accept(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        return ((DataBufferInt) sprite.getRaster().getDataBuffer()).getData();
+    }
+
+    public QRStyle style() {
+        return style;
+    }
+
+    public int multiple() {
+        return multiple;
+    }
+
+    /**
+     * Heap bytes held by the sprites
+     */
+    public long sizeInBytes() {
+        return (long) (module.length + finder.length) * Integer.BYTES;
+    }
+
+    /**
+     * Paints the code into a TYPE_INT_RGB raster of the layout's size: the
+     * background everywhere, the module sprite at every dark module outside
+     * the finder patterns and the finder sprite at the three corners
+     *
+     * @param modules Encoded module matrix
+     * @param layout  Layout with this sprite set's module size
+     * @param pixels  Raster data, layout.width() x layout.height()
+     */
+    public void renderInto(ByteMatrix modules, ModuleLayout layout, int[] pixels) {
+        if (layout.multiple() != multiple) {
+            throw new IllegalArgumentException(
+                    "Sprites are for " + multiple + "px modules, layout has " + layout.multiple() + "px");
+        }
+        int width = layout.width();
+        int dimension = layout.dimension();
+        int left = layout.leftPadding();
+        int top = layout.topPadding();
+        int finderEnd = dimension - QRStyle.FINDER_MODULES;
+
+        Arrays.fill(pixels, 0, width * layout.height(), style.background());
+
+        byte[][] rows = modules.getArray();
+        for (int y = 0; y < dimension; y++) {
+            byte[] row = rows[y];
+            boolean finderRow = y < QRStyle.FINDER_MODULES || y >= finderEnd;
+            int rowOffset = (top + y * multiple) * width + left;
+            for (int x = 0; x < dimension; x++) {
+                if (row[x] != 1 || finderRow && isFinder(x, y, finderEnd)) {
+                    continue;
+                }
+                blit(module, multiple, pixels, rowOffset + x * multiple, width);
+            }
+        }
+
+        int finderSize = multiple * QRStyle.FINDER_MODULES;
+        int far = finderEnd * multiple;
+        blit(finder, finderSize, pixels, top * width + left, width);
+        blit(finder, finderSize, pixels, top * width + left + far, width);
+        blit(finder, finderSize, pixels, (top + far) * width + left, width);
+    }
+
+    private static boolean isFinder(int x, int y, int finderEnd) {
+        boolean left = x < QRStyle.FINDER_MODULES;
+        boolean top = y < QRStyle.FINDER_MODULES;
+        return top && (left || x >= finderEnd) || left && y >= finderEnd;
+    }
+
+    private static void blit(int[] sprite, int size, int[] pixels, int offset, int width) {
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(sprite, row * size, pixels, offset + row * width, size);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.zing.zing.render;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.stereotype.Component;
+
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+/**
+ * Writes a QR code as SVG with the same pixel geometry as the PNG path
+ * Dark modules are one path of horizontal runs, so the document stays small
+ * and scales without blur; the logo is a white circle with the cached logo
+ * sprite embedded as a PNG data URI. Styled codes define the module and
+ * finder shapes once and place them with use elements, the vector
+ * counterpart of the raster path's sprites.
+ */
+@Component
+public class SvgWriter {
+
+    private static final int LOGO_CACHE_SIZE = 32;
+
+    private final Map<Integer, String> logos = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > LOGO_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Writes an SVG for the given modules
+     *
+     * @param modules Encoded module matrix
+     * @param layout  Raster layout the PNG path would use
+     */
+    public byte[] write(ByteMatrix modules, ModuleLayout layout) {
+        return write(modules, layout, null, null);
+    }
+
+    /**
+     * Writes an SVG for the given modules with the logo centred on the code
+     *
+     * @param logoSprites Supplies size x size ARGB logo pixels on a cache miss
+     */
+    public byte[] writeWithLogo(ByteMatrix modules, ModuleLayout layout, IntFunction<int[]> logoSprites) {
+        return write(modules, layout, null, logoSprites);
+    }
+
+    /**
+     * Writes an SVG for the given modules in a style, optionally with the logo
+     *
+     * @param logoSprites Supplies size x size ARGB logo pixels on a cache miss; null for no logo
+     */
+    public byte[] writeStyled(ByteMatrix modules, ModuleLayout layout, QRStyle style,
+            IntFunction<int[]> logoSprites) {
+        return write(modules, layout, style, logoSprites);
+    }
+
+    private byte[] write(ByteMatrix modules, ModuleLayout layout, QRStyle style, IntFunction<int[]> logoSprites) {
+        int width = layout.width();
+        int height = layout.height();
+        String foreground = style != null ? hex(style.foreground()) : "#000";
+        String background = style != null ? hex(style.background()) : "#fff";
+        boolean squareModules = style == null || style.modules() == QRStyle.ModuleShape.SQUARE;
+
+        StringBuilder svg = new StringBuilder(256 + layout.dimension() * layout.dimension() * 4);
+        svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\"")
+                .append(" width=\"").append(width).append("\" height=\"").append(height)
+                .append("\" viewBox=\"0 0 ").append(width).append(' ').append(height)
+                .append(style == null ? "\" shape-rendering=\"crispEdges\">\n" : "\">\n")
+                .append("<rect width=\"").append(width).append("\" height=\"").append(height)
+                .append("\" fill=\"").append(background).append("\"/>\n");
+
+        if (style != null) {
+            writeStyleShapes(svg, modules, layout, style, foreground);
+        }
+
+        if (squareModules) {
+            appendModuleRuns(svg, modules, layout, style, foreground);
+        }
+
+        if (logoSprites != null) {
+            // Same geometry as the PNG logo overlay
+            int logoSize = Math.min(width, height) / 4;
+            int logoX = (width - logoSize) / 2;
+            int logoY = (height - logoSize) / 2;
+            int padding = logoSize / 10;
+            double radius = logoSize / 2.0 + padding;
+
+            svg.append("<circle cx=\"").append(logoX + logoSize / 2.0).append("\" cy=\"")
+                    .append(logoY + logoSize / 2.0).append("\" r=\"").append(radius).append("\" fill=\"")
+                    .append(background).append("\"/>\n")
+                    .append("<image x=\"").append(logoX).append("\" y=\"").append(logoY).append("\" width=\"")
+                    .append(logoSize).append("\" height=\"").append(logoSize).append("\" xlink:href=\"")
+                    .append(logoDataUri(logoSize, logoSprites)).append("\"/>\n");
+        }
+
+        svg.append("</svg>\n");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends dark modules as one path of horizontal runs
+     */
+    private static void appendModuleRuns(StringBuilder svg, ByteMatrix modules, ModuleLayout layout, QRStyle style,
+            String foreground) {
+        int multiple = layout.multiple();
+        svg.append("<path fill=\"").append(foreground)
+                .append(style != null ? "\" shape-rendering=\"crispEdges\" d=\"" : "\" d=\"");
+        byte[][] rows = modules.getArray();
+        for (int y = 0; y < layout.dimension(); y++) {
+            byte[] row = rows[y];
+            int x = 0;
+            while (x < layout.dimension()) {
+                if (!isDark(row, x, y, layout.dimension(), style)) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < layout.dimension() && isDark(row, x, y, layout.dimension(), style)) {
+                    x++;
+                }
+                int runLength = (x - runStart) * multiple;
+                svg.append('M').append(layout.leftPadding() + runStart * multiple).append(',')
+                        .append(layout.topPadding() + y * multiple).append('h').append(runLength)
+                        .append('v').append(multiple).append('h').append(-runLength).append('z');
+            }
+        }
+        svg.append("\"/>\n");
+    }
+
+    /**
+     * Defines the module and finder outlines once and places them with use
+     * elements; square modules are left to the run-length path
+     */
+    private static void writeStyleShapes(StringBuilder svg, ByteMatrix modules, ModuleLayout layout, QRStyle style,
+            String foreground) {
+        int multiple = layout.multiple();
+        int dimension = layout.dimension();
+        boolean squareModules = style.modules() == QRStyle.ModuleShape.SQUARE;
+
+        svg.append("<defs>");
+        if (!squareModules) {
+            appendShape(svg.append("<path id=\"m\" "), style.modules().outline(multiple));
+        }
+        appendShape(svg.append("<path id=\"f\" "), style.finders().outline(multiple));
+        svg.append("</defs>\n<g fill=\"").append(foreground).append("\">\n");
+
+        int far = (dimension - QRStyle.FINDER_MODULES) * multiple;
+        int[][] finders = { { 0, 0 }, { far, 0 }, { 0, far } };
+        for (int[] finder : finders) {
+            appendUse(svg, "f", layout.leftPadding() + finder[0], layout.topPadding() + finder[1]);
+        }
+        if (!squareModules) {
+            byte[][] rows = modules.getArray();
+            for (int y = 0; y < dimension; y++) {
+                for (int x = 0; x < dimension; x++) {
+                    if (isDark(rows[y], x, y, dimension, style)) {
+                        appendUse(svg, "m", layout.leftPadding() + x * multiple, layout.topPadding() + y * multiple);
+                    }
+                }
+            }
+        }
+        svg.append("</g>\n");
+    }
+
+    /**
+     * Whether a module is drawn as a module; in styled codes the finder
+     * patterns are drawn separately
+     */
+    private static boolean isDark(byte[] row, int x, int y, int dimension, QRStyle style) {
+        if (row[x] != 1) {
+            return false;
+        }
+        if (style == null) {
+            return true;
+        }
+        int finderEnd = dimension - QRStyle.FINDER_MODULES;
+        boolean left = x < QRStyle.FINDER_MODULES;
+        boolean top = y < QRStyle.FINDER_MODULES;
+        return !(top && (left || x >= finderEnd) || left && y >= finderEnd);
+    }
+
+    private static void appendUse(StringBuilder svg, String id, int x, int y) {
+        svg.append("<use xlink:href=\"#").append(id).append("\" x=\"").append(x).append("\" y=\"").append(y)
+                .append("\"/>\n");
+    }
+
+    /**
+     * Appends the d and fill-rule attributes of a shape and closes the element
+     */
+    private static void appendShape(StringBuilder svg, Shape shape) {
+        PathIterator path = shape.getPathIterator(null);
+        svg.append("fill-rule=\"").append(path.getWindingRule() == PathIterator.WIND_EVEN_ODD ? "evenodd" : "nonzero")
+                .append("\" d=\"");
+        double[] coords = new double[6];
+        while (!path.isDone()) {
+            int segment = path.currentSegment(coords);
+            switch (segment) {
+                case PathIterator.SEG_MOVETO -> appendPoints(svg.append('M'), coords, 1);
+                case PathIterator.SEG_LINETO -> appendPoints(svg.append('L'), coords, 1);
+                case PathIterator.SEG_QUADTO -> appendPoints(svg.append('Q'), coords, 2);
+                case PathIterator.SEG_CUBICTO -> appendPoints(svg.append('C'), coords, 3);
+                default -> svg.append('z');
+            }
+            path.next();
+        }
+        svg.append("\"/>");
+    }
+
+    private static void appendPoints(StringBuilder svg, double[] coords, int points) {
+        for (int i = 0; i < points * 2; i++) {
+            if (i > 0) {
+                svg.append(i % 2 == 0 ? ' ' : ',');
+            }
+            double value = Math.round(coords[i] * 100) / 100.0;
+            if (value == Math.rint(value)) {
+                svg.append((long) value);
+            } else {
+                svg.append(value);
+            }
+        }
+    }
+
+    private static String hex(int rgb) {
+        return String.format("#%06x", rgb & 0xFFFFFF);
+    }
+
+    private String logoDataUri(int size, IntFunction<int[]> logoSprites) {
+        synchronized (logos) {
+            String cached = logos.get(size);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        BufferedImage sprite = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        sprite.setRGB(0, 0, size, size, logoSprites.apply(size), 0, size);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(sprite, "PNG", png);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode logo sprite", e);
+        }
+
+        String uri = "data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray());
+        synchronized (logos) {
+            logos.put(size, uri);
+        }
+        return uri;
+    }
+}
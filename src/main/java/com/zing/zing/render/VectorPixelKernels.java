@@ -0,0 +1,81 @@
+package com.zing.zing.render;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Pixel loops on jdk.incubator.vector, processing SPECIES_PREFERRED lanes per
+ * step with scalar tails. Only loaded when the module is present at runtime
+ * (--add-modules jdk.incubator.vector); see PixelKernelsFactory.
+ */
+public class VectorPixelKernels extends ScalarPixelKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void blendSrcOver(int[] dst, int dstOffset, int[] src, int srcOffset, int length) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector source = IntVector.fromArray(SPECIES, src, srcOffset + i);
+            IntVector target = IntVector.fromArray(SPECIES, dst, dstOffset + i);
+            IntVector alpha = source.lanewise(VectorOperators.LSHR, 24);
+            IntVector inverse = alpha.neg().add(255);
+
+            IntVector r = blendChannel(source, target, alpha, inverse, 16);
+            IntVector g = blendChannel(source, target, alpha, inverse, 8);
+            IntVector b = blendChannel(source, target, alpha, inverse, 0);
+
+            r.lanewise(VectorOperators.LSHL, 16)
+                    .or(g.lanewise(VectorOperators.LSHL, 8))
+                    .or(b)
+                    .or(0xFF000000)
+                    .intoArray(dst, dstOffset + i);
+        }
+
+        super.blendSrcOver(dst, dstOffset + i, src, srcOffset + i, length - i);
+    }
+
+    @Override
+    protected void verticalPass(int[] in, int[] out, ResampleWeights weights, int width, int dstHeight) {
+        int upper = SPECIES.loopBound(width);
+
+        for (int y = 0; y < dstHeight; y++) {
+            int first = weights.start[y];
+            int taps = weights.count[y];
+            int tapBase = y * weights.maxTaps;
+            int outRow = y * width;
+
+            for (int x = 0; x < upper; x += SPECIES.length()) {
+                IntVector acc = IntVector.zero(SPECIES);
+                for (int k = 0; k < taps; k++) {
+                    IntVector row = IntVector.fromArray(SPECIES, in, (first + k) * width + x);
+                    acc = acc.add(row.mul(weights.weights[tapBase + k]));
+                }
+                acc.add(ResampleWeights.HALF)
+                        .lanewise(VectorOperators.ASHR, ResampleWeights.BITS)
+                        .intoArray(out, outRow + x);
+            }
+
+            verticalPassRow(in, out, weights, width, y, upper);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x32";
+    }
+
+    /**
+     * div255(src * alpha + dst * (255 - alpha)) for the channel at the given shift
+     */
+    private static IntVector blendChannel(IntVector source, IntVector target, IntVector alpha, IntVector inverse,
+            int shift) {
+        IntVector sourceChannel = source.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+        IntVector targetChannel = target.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+        IntVector t = sourceChannel.mul(alpha).add(targetChannel.mul(inverse)).add(128);
+        return t.add(t.lanewise(VectorOperators.LSHR, 8)).lanewise(VectorOperators.LSHR, 8);
+    }
+}
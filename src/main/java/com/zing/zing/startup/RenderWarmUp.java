@@ -0,0 +1,81 @@
+package com.zing.zing.startup;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Eagerly initialises the rendering stack during startup
+ * Java2D, font, ImageIO, ZXing and iText initialisation otherwise happens on
+ * the first request a new instance receives. Running it here also means a CDS
+ * training run (spring.context.exit=onRefresh) records those classes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RenderWarmUp implements SmartInitializingSingleton, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final String WARM_UP_TEXT = "https://kcare.example.com/warm-up?id=0123456789";
+
+    private final QRCodeService qrCodeService;
+    private final QRCodeConfig qrCodeConfig;
+
+    private volatile long warmUpMillis = -1;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!qrCodeConfig.getStartup().isWarmUp()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // ImageIO plugin registry and PNG writer
+            ImageIO.getImageWritersByFormatName("png").hasNext();
+
+            // Font subsystem and text rasterizer used by the logo text fallback
+            BufferedImage scratch = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = scratch.createGraphics();
+            try {
+                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g2d.setFont(new Font("Arial", Font.BOLD, 16));
+                g2d.drawString("KCare", 0, g2d.getFontMetrics().getAscent());
+            } finally {
+                g2d.dispose();
+            }
+
+            // One render per path loads ZXing, the logo, Java2D compositing and iText
+            int size = qrCodeConfig.getDefaults().getWidth();
+            qrCodeService.generateQRCodeImage(WARM_UP_TEXT, size, size);
+            qrCodeService.generateQRCodeImageWithLogo(WARM_UP_TEXT, size, size, true);
+            qrCodeService.generateQRCodePDFWithLogo(WARM_UP_TEXT, size, size, true);
+
+        } catch (Exception e) {
+            log.warn("Render warm-up failed, first requests will initialise lazily: {}", e.getMessage());
+        }
+
+        warmUpMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Render warm-up completed in {} ms", warmUpMillis);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Ready to serve QR codes {} ms after JVM start (render warm-up: {} ms)", uptime, warmUpMillis);
+    }
+}
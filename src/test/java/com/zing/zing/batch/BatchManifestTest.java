@@ -0,0 +1,47 @@
+package com.zing.zing.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BatchManifestTest {
+
+    @Test
+    void readsQuotedCsvWithDefaults() throws IOException {
+        String csv = "id,text,width,logo,style\r\n"
+                + "bed-1,https://kcare.example.com/p?a=1&b=2,500,true,brand\r\n"
+                + "bed-2,\"Ward 3, \"\"East\"\"\nBed 2\",,,\n"
+                + "\n"
+                + ",plain\n";
+
+        List<BatchItem> items = BatchManifest.readCsv(new BufferedReader(new StringReader(csv)), 300, 320);
+
+        assertEquals(List.of(
+                new BatchItem("bed-1", "https://kcare.example.com/p?a=1&b=2", 500, 320, true, "brand"),
+                new BatchItem("bed-2", "Ward 3, \"East\"\nBed 2", 300, 320, false),
+                new BatchItem("3", "plain", 300, 320, false)), items);
+    }
+
+    @Test
+    void readsNdjsonAndRejectsUnsafeIds() throws IOException {
+        String ndjson = "{\"id\":\"a\",\"text\":\"first\",\"width\":400,\"height\":200}\n"
+                + "\n"
+                + "{\"text\":\"second\",\"logo\":true}\n";
+
+        List<BatchItem> items = BatchManifest.readNdjson(new BufferedReader(new StringReader(ndjson)), 300, 300);
+
+        assertEquals(List.of(
+                new BatchItem("a", "first", 400, 200, false),
+                new BatchItem("2", "second", 300, 300, true)), items);
+        assertThrows(IllegalArgumentException.class, () -> BatchManifest.readNdjson(
+                new BufferedReader(new StringReader("{\"id\":\"../x\",\"text\":\"t\"}")), 300, 300));
+        assertThrows(IllegalArgumentException.class, () -> BatchManifest.readCsv(
+                new BufferedReader(new StringReader("id,text\nx,\"open")), 300, 300));
+    }
+}
@@ -0,0 +1,123 @@
+package com.zing.zing.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+class BatchRendererTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rendersFilesInParallelAndResumes() throws Exception {
+        QRCodeService service = QRCodeServices.create();
+        BatchRenderer renderer = new BatchRenderer(service);
+        List<BatchItem> items = items(40);
+        items.add(new BatchItem("empty", "", 300, 300, false));
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        BatchProgress first = new BatchProgress(items.size());
+        renderer.renderFiles(items, EnumSet.of(BatchRenderer.Format.PNG, BatchRenderer.Format.SVG), directory, pool,
+                first);
+
+        assertEquals(40, first.getRendered());
+        assertEquals(1, first.getFailed());
+        assertTrue(first.getFailures().containsKey("empty"));
+        assertArrayEquals(service.generateQRCodeImage("label-17", 300, 300),
+                Files.readAllBytes(directory.resolve("item-17.png")));
+        assertTrue(Files.exists(directory.resolve("item-39.svg")));
+        assertFalse(Files.exists(directory.resolve("empty.png")));
+
+        // An interrupted run leaves a missing file and a partial one behind
+        Files.delete(directory.resolve("item-5.svg"));
+        Files.write(directory.resolve("item-6.svg12345.part"), new byte[] { 1 });
+        BatchProgress second = new BatchProgress(items.size());
+        renderer.renderFiles(items, EnumSet.of(BatchRenderer.Format.PNG, BatchRenderer.Format.SVG), directory, pool,
+                second);
+
+        assertEquals(1, second.getRendered());
+        assertEquals(39, second.getSkipped());
+        assertTrue(Files.exists(directory.resolve("item-5.svg")));
+        assertFalse(Files.exists(directory.resolve("item-6.svg12345.part")));
+        pool.shutdown();
+    }
+
+    @Test
+    void rendersStyledItemsLikeTheServer() throws Exception {
+        QRCodeConfig config = new QRCodeConfig();
+        QRCodeConfig.Style style = new QRCodeConfig.Style();
+        style.setForeground("#1A3C6E");
+        config.getStyles().put("brand", style);
+        QRCodeService service = QRCodeServices.create(config);
+        List<BatchItem> items = List.of(new BatchItem("styled", "label", 300, 300, true, "brand"),
+                new BatchItem("unknown", "label", 300, 300, false, "missing"));
+        BatchProgress progress = new BatchProgress(items.size());
+
+        new BatchRenderer(service).renderFiles(items, EnumSet.of(BatchRenderer.Format.PNG, BatchRenderer.Format.SVG),
+                directory, ForkJoinPool.commonPool(), progress);
+
+        assertArrayEquals(service.generateQRCodeImageWithLogo("label", 300, 300, true, "brand"),
+                Files.readAllBytes(directory.resolve("styled.png")));
+        assertArrayEquals(service.generateQRCodeSVG("label", 300, 300, true, "brand"),
+                Files.readAllBytes(directory.resolve("styled.svg")));
+        assertEquals(1, progress.getFailed());
+        assertTrue(progress.getFailures().containsKey("unknown"));
+    }
+
+    @Test
+    void laysOutSheetInManifestOrder() throws Exception {
+        BatchRenderer renderer = new BatchRenderer(QRCodeServices.create());
+        Path sheet = directory.resolve("sheets/labels.pdf");
+        BatchProgress progress = new BatchProgress(30);
+
+        renderer.renderSheet(items(30), 4, sheet, ForkJoinPool.commonPool(), progress);
+
+        assertEquals(30, progress.getRendered());
+        PdfReader reader = new PdfReader(Files.readAllBytes(sheet));
+        try {
+            assertEquals(2, reader.getNumberOfPages(), "7 rows of about 140pt do not fit one A4 page");
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void commandRunsWithoutWebServerAndReportsFailures() throws Exception {
+        Path manifest = directory.resolve("labels.csv");
+        Files.writeString(manifest, "id,text\na,first\nb,second\nbad,\n");
+        Path output = directory.resolve("out");
+
+        int exitCode = BatchCommand.launch("--manifest=" + manifest, "--output=" + output, "--formats=png,pdf",
+                "--parallelism=2", "--qrcode.startup.warm-up=false");
+
+        assertEquals(1, exitCode);
+        assertTrue(Files.exists(output.resolve("a.pdf")));
+        assertTrue(Files.exists(output.resolve("b.png")));
+        assertTrue(Files.readString(output.resolve("failed.csv")).startsWith("id,error\nbad,"));
+    }
+
+    private static List<BatchItem> items(int count) {
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new BatchItem("item-" + i, "label-" + i, 300, 300, false));
+        }
+        return items;
+    }
+}
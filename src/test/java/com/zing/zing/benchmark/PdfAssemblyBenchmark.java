@@ -0,0 +1,58 @@
+package com.zing.zing.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+/**
+ * Single-code PDF latency for the iText and template engines, with the PNG
+ * path as the reference. Run with -prof gc to compare allocation per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PdfAssemblyBenchmark {
+
+    @Param({ "ITEXT", "TEMPLATE" })
+    private QRCodeConfig.Pdf.Engine engine;
+
+    @Param({ "300", "1000" })
+    private int size;
+
+    private final String text = "https://kcare.example.com/patient?mrn=000123456&ward=ICU-7";
+
+    private QRCodeService service;
+
+    @Setup
+    public void setup() {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPdf().setEngine(engine);
+        service = QRCodeServices.create(config);
+    }
+
+    @Benchmark
+    public byte[] png() throws Exception {
+        return service.generateQRCodeImage(text, size, size);
+    }
+
+    @Benchmark
+    public byte[] pdf() throws Exception {
+        return service.generateQRCodePDF(text, size, size);
+    }
+
+    @Benchmark
+    public byte[] pdfWithLogo() throws Exception {
+        return service.generateQRCodePDFWithLogo(text, size, size, true);
+    }
+}
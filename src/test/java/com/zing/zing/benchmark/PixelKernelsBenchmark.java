@@ -0,0 +1,68 @@
+package com.zing.zing.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.zing.zing.render.PixelKernels;
+import com.zing.zing.render.PixelKernelsFactory;
+
+/**
+ * Scalar versus Vector API kernels for logo blending and scaling. The logo is
+ * a quarter of the QR size, as in QRCodeService.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PixelKernelsBenchmark {
+
+    private static final int LOGO_SOURCE_WIDTH = 129;
+    private static final int LOGO_SOURCE_HEIGHT = 36;
+
+    @Param({ "scalar", "vector" })
+    private String kernels;
+
+    @Param({ "300", "2000" })
+    private int size;
+
+    private PixelKernels pixelKernels;
+    private int logoSize;
+    private int[] logoSource;
+    private int[] logo;
+    private int[] raster;
+
+    @Setup
+    public void setup() {
+        pixelKernels = PixelKernelsFactory.create("vector".equals(kernels));
+        logoSize = size / 4;
+
+        Random random = new Random(1);
+        logoSource = random.ints(LOGO_SOURCE_WIDTH * LOGO_SOURCE_HEIGHT).toArray();
+        logo = random.ints(logoSize * logoSize).toArray();
+        raster = random.ints(size * size).map(rgb -> rgb | 0xFF000000).toArray();
+    }
+
+    @Benchmark
+    public int[] blendLogo() {
+        int offset = (size - logoSize) / 2;
+        for (int y = 0; y < logoSize; y++) {
+            pixelKernels.blendSrcOver(raster, (offset + y) * size + offset, logo, y * logoSize, logoSize);
+        }
+        return raster;
+    }
+
+    @Benchmark
+    public int[] scaleLogo() {
+        return pixelKernels.resample(logoSource, LOGO_SOURCE_WIDTH, LOGO_SOURCE_HEIGHT, logoSize, logoSize);
+    }
+}
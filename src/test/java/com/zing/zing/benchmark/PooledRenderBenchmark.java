@@ -0,0 +1,57 @@
+package com.zing.zing.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+/**
+ * PNG render cost with and without pooled rasters and encode buffers.
+ * Run with -prof gc: gc.alloc.rate.norm is the allocation per render and
+ * gc.count / gc.time show the collections it causes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PooledRenderBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean pooled;
+
+    @Param({ "300", "2000" })
+    private int size;
+
+    private final String text = "https://kcare.example.com/patient?mrn=000123456&ward=ICU-7";
+
+    private QRCodeService service;
+
+    @Setup
+    public void setup() {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPool().setEnabled(pooled);
+        config.getRender().setPngWriter(pooled ? QRCodeConfig.Render.PngWriter.POOLED
+                : QRCodeConfig.Render.PngWriter.IMAGEIO);
+        config.getRender().setEngine(QRCodeConfig.Render.Engine.ARRAY);
+        service = QRCodeServices.create(config);
+    }
+
+    @Benchmark
+    public byte[] png() throws Exception {
+        return service.generateQRCodeImage(text, size, size);
+    }
+
+    @Benchmark
+    public byte[] pngWithLogo() throws Exception {
+        return service.generateQRCodeImageWithLogo(text, size, size, true);
+    }
+}
@@ -0,0 +1,99 @@
+package com.zing.zing.benchmark;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.render.QRTemplateCache;
+
+/**
+ * Compares rendering through QRCodeWriter/Graphics2D with the cached template
+ * path, under concurrent load. PNG encoding is excluded since it is identical.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class TemplateRenderBenchmark {
+
+    private static final int MARGIN = 2;
+
+    @Param({ "300", "1000", "2000" })
+    private int size;
+
+    private final Map<EncodeHintType, Object> hints = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H,
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.MARGIN, MARGIN);
+
+    private final String text = "https://kcare.example.com/patient?mrn=000123456&ward=ICU-7";
+
+    private QRTemplateCache templateCache;
+
+    @Setup
+    public void setup() {
+        templateCache = new QRTemplateCache(new QRCodeConfig());
+    }
+
+    @Benchmark
+    public BufferedImage writerMonochrome() throws WriterException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size, hints);
+        return MatrixToImageWriter.toBufferedImage(bitMatrix);
+    }
+
+    @Benchmark
+    public BufferedImage templateMonochrome() throws WriterException {
+        QRCode qrCode = Encoder.encode(text, ErrorCorrectionLevel.H, hints);
+        return templateCache.render(qrCode, size, size, MARGIN, BufferedImage.TYPE_BYTE_BINARY);
+    }
+
+    @Benchmark
+    public BufferedImage graphicsRgb() throws WriterException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, size, size, hints);
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.setColor(Color.BLACK);
+            for (int x = 0; x < bitMatrix.getWidth(); x++) {
+                for (int y = 0; y < bitMatrix.getHeight(); y++) {
+                    if (bitMatrix.get(x, y)) {
+                        graphics.fillRect(x, y, 1, 1);
+                    }
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage templateRgb() throws WriterException {
+        QRCode qrCode = Encoder.encode(text, ErrorCorrectionLevel.H, hints);
+        return templateCache.render(qrCode, size, size, MARGIN, BufferedImage.TYPE_INT_RGB);
+    }
+}
@@ -0,0 +1,117 @@
+package com.zing.zing.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapSlabStoreTest {
+
+    @Test
+    void storesAcrossPagesAndEvictsLeastRecentlyUsed() throws IOException {
+        // Two slabs of four 1KB pages
+        OffHeapSlabStore<String> store = new OffHeapSlabStore<>(8 * 1024, 4 * 1024, 1024);
+        byte[] first = bytes(2500, 1);
+        byte[] second = bytes(3000, 2);
+        byte[] third = bytes(3000, 3);
+
+        assertTrue(store.put("first", first));
+        assertEquals(4 * 1024, store.reservedBytes(), "slabs are reserved lazily");
+        assertTrue(store.put("second", second));
+        try (OffHeapSlabStore.Lease lease = store.lease("first")) {
+            assertArrayEquals(first, lease.toByteArray());
+        }
+        assertTrue(store.put("third", third));
+
+        assertNull(store.lease("second"), "least recently used entry is evicted");
+        assertEquals(2, store.size());
+        assertEquals(first.length + third.length, store.sizeInBytes());
+        assertEquals(8 * 1024, store.reservedBytes());
+        try (OffHeapSlabStore.Lease lease = store.lease("third")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            lease.writeTo(out);
+            assertArrayEquals(third, out.toByteArray());
+        }
+        assertFalse(store.put("too-big", new byte[9 * 1024]));
+    }
+
+    @Test
+    void leasedEntryKeepsItsPagesUntilClosed() {
+        OffHeapSlabStore<String> store = new OffHeapSlabStore<>(4 * 1024, 4 * 1024, 1024);
+        byte[] leased = bytes(4096, 4);
+        store.put("leased", leased);
+
+        OffHeapSlabStore.Lease lease = store.lease("leased");
+        assertNotNull(lease);
+        assertFalse(store.put("other", bytes(1024, 5)), "the only pages are still being read");
+        try (OffHeapSlabStore.Lease again = store.lease("leased")) {
+            assertNotNull(again, "a put that cannot fit evicts nothing");
+        }
+        assertArrayEquals(leased, lease.toByteArray());
+
+        lease.close();
+        lease.close();
+        assertTrue(store.put("other", bytes(1024, 5)));
+        assertTrue(store.put("more", bytes(3072, 6)));
+        assertTrue(store.put("full", bytes(4096, 7)));
+        assertEquals(1, store.size(), "a second close must not free the pages twice");
+    }
+
+    @Test
+    void evictionSkipsLeasedEntries() {
+        OffHeapSlabStore<String> store = new OffHeapSlabStore<>(4 * 1024, 4 * 1024, 1024);
+        store.put("leased", bytes(1024, 1));
+        store.put("second", bytes(1024, 2));
+        store.put("third", bytes(2048, 3));
+
+        try (OffHeapSlabStore.Lease lease = store.lease("leased")) {
+            // Eldest first: the leased entry would free nothing, so the next one goes
+            assertTrue(store.put("fourth", bytes(1024, 4)));
+            assertTrue(lease.length() > 0);
+            assertNull(store.lease("second"));
+            assertFalse(store.put("too-big", bytes(4096, 5)));
+            assertEquals(3, store.size(), "nothing evicted for a put that cannot fit");
+        }
+        try (OffHeapSlabStore.Lease lease = store.lease("leased")) {
+            assertNotNull(lease, "the leased entry was kept");
+        }
+    }
+
+    @Test
+    void slicesStopAtPageBoundaries() {
+        OffHeapSlabStore<String> store = new OffHeapSlabStore<>(4 * 1024, 4 * 1024, 1024);
+        byte[] stored = bytes(2500, 8);
+        store.put("sliced", stored);
+
+        try (RenderOutput output = RenderOutput.of(store.lease("sliced"))) {
+            assertEquals(700, output.slice(0, 700).remaining());
+            assertEquals(324, output.slice(700, 700).remaining(), "ends at the first page");
+            assertEquals(452, output.slice(2048, 700).remaining(), "ends at the entry");
+
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            for (int offset = 0; offset < output.length();) {
+                ByteBuffer slice = output.slice(offset, 700);
+                offset += slice.remaining();
+                byte[] chunk = new byte[slice.remaining()];
+                slice.get(chunk);
+                copy.writeBytes(chunk);
+            }
+            assertArrayEquals(stored, copy.toByteArray());
+        }
+    }
+
+    private static byte[] bytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,229 @@
+package com.zing.zing.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.ZingApplication;
+import com.zing.zing.config.QRCodeConfig;
+
+class PeerRenderCacheTest {
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @AfterEach
+    void close() {
+        if (first != null) {
+            first.close();
+        }
+        if (second != null) {
+            second.close();
+        }
+    }
+
+    @Test
+    void ringSpreadsKeysAndIsStable() {
+        List<String> nodes = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 64);
+        ConsistentHashRing same = new ConsistentHashRing(List.of(nodes.get(2), nodes.get(0), nodes.get(1)), 64);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            String key = new RenderKey(RenderKey.Format.PNG, "code-" + i, 300, 300).id();
+            String owner = ring.nodeFor(key);
+            assertEquals(owner, same.nodeFor(key), "ownership must not depend on peer order");
+            counts.merge(owner, 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 600, "unbalanced ring: " + counts));
+    }
+
+    @Test
+    void ownerRendersOnceAndPeerFallsBackWhenOwnerIsDown() throws IOException {
+        int firstPort = freePort();
+        int secondPort = freePort();
+        String firstUrl = "http://localhost:" + firstPort;
+        String secondUrl = "http://localhost:" + secondPort;
+        first = start(firstPort, firstUrl, secondUrl);
+        second = start(secondPort, secondUrl, firstUrl);
+
+        PeerRenderCache firstCache = first.getBean(PeerRenderCache.class);
+        PeerRenderCache secondCache = second.getBean(PeerRenderCache.class);
+        RenderKey key = keyOwnedBy(firstUrl, List.of(firstUrl, secondUrl));
+
+        byte[] fromSecond = secondCache.get(key);
+        byte[] fromFirst = firstCache.get(key);
+        byte[] again = secondCache.get(key);
+
+        assertArrayEquals(fromFirst, fromSecond);
+        assertArrayEquals(fromFirst, again);
+        assertEquals(1L, firstCache.stats().get("renders"), "owner renders the key once");
+        assertEquals(0L, secondCache.stats().get("renders"));
+        assertEquals(1L, secondCache.stats().get("peerFetches"));
+
+        first.close();
+        first = null;
+
+        RenderKey other = keyOwnedBy(firstUrl, List.of(firstUrl, secondUrl), "after-shutdown");
+        byte[] local = secondCache.get(other);
+
+        assertTrue(local.length > 0);
+        assertEquals(1L, secondCache.stats().get("renders"), "falls back to a local render");
+        assertEquals(1L, secondCache.stats().get("peerFailures"));
+    }
+
+    @Test
+    void ownedKeysAreServedFromOffHeapMemory() throws Exception {
+        int port = freePort();
+        first = new SpringApplicationBuilder(ZingApplication.class).run(
+                "--server.port=" + port,
+                "--qrcode.startup.warm-up=false",
+                "--qrcode.cache.enabled=true",
+                "--qrcode.cache.off-heap.enabled=true",
+                "--qrcode.cache.off-heap.max-bytes=1048576",
+                "--qrcode.cache.off-heap.slab-bytes=262144");
+        PeerRenderCache cache = first.getBean(PeerRenderCache.class);
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + port + "/api/v1/qr/qrcode/png?text=off-heap&width=400&height=400");
+
+        HttpResponse<byte[]> rendered = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> cached = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, cached.statusCode());
+        assertEquals("image/png", cached.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(String.valueOf(cached.body().length),
+                cached.headers().firstValue("Content-Length").orElseThrow());
+        assertArrayEquals(rendered.body(), cached.body());
+        assertEquals(1L, cache.stats().get("renders"));
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1, cache.stats().get("mainEntries"));
+        assertEquals(262144L, cache.stats().get("offHeapReservedBytes"));
+
+        HttpResponse<Void> peerRequest = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                + PeerRenderCache.PEER_PATH)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"format\":\"PNG\",\"text\":\"x\",\"width\":300,"
+                        + "\"height\":300}")).build(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(404, peerRequest.statusCode(), "peer endpoint is not mapped without peers");
+    }
+
+    @Test
+    void onlyRingMembersAreServed() throws Exception {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getCache().setEnabled(true);
+        config.getCache().setSelfUrl("http://10.0.0.1:8080");
+        config.getCache().setPeers(List.of("http://10.0.0.2:8080/", "http://localhost:8080"));
+        PeerRenderCache cache = new PeerRenderCache(null, config, new ObjectMapper());
+
+        try {
+            assertTrue(cache.isMemberAddress(InetAddress.getByName("10.0.0.2")));
+            assertTrue(cache.isMemberAddress(InetAddress.getByName("10.0.0.1")));
+            assertTrue(cache.isMemberAddress(InetAddress.getLoopbackAddress()), "host names are resolved");
+            assertFalse(cache.isMemberAddress(InetAddress.getByName("10.0.0.3")));
+            assertFalse(cache.isMemberAddress(null));
+
+            cache.resolveMembers();
+            assertTrue(cache.isMemberAddress(InetAddress.getByName("10.0.0.2")), "still a member after a refresh");
+        } finally {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    void errorInTheLoaderReachesEveryWaiter() throws Exception {
+        PeerRenderCache cache = new PeerRenderCache(null, new QRCodeConfig(), new ObjectMapper());
+        RenderKey key = new RenderKey(RenderKey.Format.PNG, "large", 2000, 2000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+
+        CompletableFuture<Throwable> leader = CompletableFuture.supplyAsync(() -> failure(() -> cache.singleFlight(key,
+                () -> {
+                    loading.countDown();
+                    awaitQuietly(fail);
+                    throw new OutOfMemoryError("raster");
+                })));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Throwable> waiter = CompletableFuture.supplyAsync(
+                () -> failure(() -> cache.singleFlight(key, () -> new byte[] { 1 })));
+        Thread.sleep(100);
+        fail.countDown();
+
+        assertInstanceOf(OutOfMemoryError.class, leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OutOfMemoryError.class, waiter.get(5, TimeUnit.SECONDS), "the waiter is not left blocked");
+        assertArrayEquals(new byte[] { 2 }, cache.singleFlight(key, () -> new byte[] { 2 }),
+                "the failed load is no longer in flight");
+    }
+
+    private static Throwable failure(Runnable call) {
+        try {
+            call.run();
+            return null;
+        } catch (Throwable e) {
+            return e;
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(int port, String self, String peer) {
+        return new SpringApplicationBuilder(ZingApplication.class).run(
+                "--server.port=" + port,
+                "--qrcode.startup.warm-up=false",
+                "--qrcode.cache.enabled=true",
+                "--qrcode.cache.self-url=" + self,
+                "--qrcode.cache.peers=" + self + "," + peer,
+                "--qrcode.cache.peer-timeout=1s",
+                "--qrcode.cache.peer-retry-after=1m");
+    }
+
+    private static RenderKey keyOwnedBy(String node, List<String> nodes) {
+        return keyOwnedBy(node, nodes, "peer-cache");
+    }
+
+    private static RenderKey keyOwnedBy(String node, List<String> nodes, String prefix) {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 64);
+        for (int i = 0;; i++) {
+            RenderKey key = new RenderKey(RenderKey.Format.PNG, prefix + "-" + i, 300, 300);
+            if (ring.nodeFor(key.id()).equals(node)) {
+                return key;
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.zing.zing.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class RenderDiagnosticsTest {
+
+    @Test
+    void emitsJfrEventsForEachStageOfARender() throws Exception {
+        QRCodeConfig config = new QRCodeConfig();
+        RenderDiagnostics diagnostics = new RenderDiagnostics(config);
+        QRCodeService service = QRCodeServices.create(config, diagnostics);
+
+        Path file = Files.createTempFile("render", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.zing.Render");
+            recording.enable("com.zing.RenderStage");
+            recording.start();
+            service.generateQRCodePDFWithLogo("https://kcare.example.com/p/42", 300, 300, true);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        List<RecordedEvent> renders = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.zing.Render")).toList();
+        assertEquals(1, renders.size(), "nested PNG render joins the PDF trace");
+        assertEquals("pdf-logo", renders.get(0).getString("operation"));
+        assertEquals(300, renders.get(0).getInt("width"));
+        assertTrue(renders.get(0).getLong("bytes") > 0);
+
+        Set<String> stages = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.zing.RenderStage"))
+                .map(event -> event.getString("stage")).collect(Collectors.toSet());
+        assertEquals(Set.of("encode", "raster", "logo_load", "composite", "png_encode", "pdf_assembly"), stages);
+    }
+
+    @Test
+    void keepsTheSlowestRendersOfTheInterval() throws Exception {
+        SlowRenderRecorder recorder = new SlowRenderRecorder(2, Duration.ofMinutes(1));
+        long start = 1_000_000L;
+        for (int millis : new int[] { 5, 50, 1, 20, 40 }) {
+            recorder.offer(millis * 1_000_000L, start, () -> render(millis));
+        }
+
+        Map<String, Object> snapshot = recorder.snapshot(start + 1000);
+        assertEquals(List.of(render(50), render(40)), snapshot.get("current"));
+
+        Map<String, Object> next = recorder.snapshot(start + 61_000);
+        assertEquals(List.of(), next.get("current"));
+        assertEquals(List.of(render(50), render(40)), next.get("previous"));
+        assertTrue(new ObjectMapper().writeValueAsString(next).contains("\"totalMillis\":50.0"));
+    }
+
+    @Test
+    void fastRendersAreRejectedWithoutBuildingAnEntryUntilTheIntervalEnds() {
+        SlowRenderRecorder recorder = new SlowRenderRecorder(1, Duration.ofMinutes(1));
+        long start = 1_000_000L;
+        recorder.offer(30_000_000L, start, () -> render(30));
+        recorder.offer(10_000_000L, start + 1000, () -> {
+            throw new AssertionError("entry built for a render below the threshold");
+        });
+
+        recorder.offer(10_000_000L, start + 60_000, () -> render(10));
+        assertEquals(List.of(render(10)), recorder.snapshot(start + 60_000).get("current"));
+    }
+
+    private static SlowRenderRecorder.SlowRender render(int millis) {
+        return new SlowRenderRecorder.SlowRender("png", 10, 300, 300, 1000, false, 0, millis,
+                List.of(new SlowRenderRecorder.StageTiming("encode", millis, 0)));
+    }
+}
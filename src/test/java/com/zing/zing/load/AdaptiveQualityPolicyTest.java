@@ -0,0 +1,90 @@
+package com.zing.zing.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.config.QRCodeConfig;
+
+class AdaptiveQualityPolicyTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void stepsDownAtOnceAndRecoversOneLevelAtATimeWithHysteresis() {
+        AdaptiveQualityPolicy policy = new AdaptiveQualityPolicy(config());
+        long now = 100 * SECOND;
+
+        assertEquals(QualityLevel.FULL, policy.evaluate(10, now));
+        assertEquals(QualityLevel.MINIMAL, policy.evaluate(100, now));
+
+        // Below the minimal thresholds but not below half of them: stays minimal
+        assertEquals(QualityLevel.MINIMAL, policy.evaluate(60, now + 20 * SECOND));
+
+        // Calm, but not for long enough yet
+        assertEquals(QualityLevel.MINIMAL, policy.evaluate(10, now + 21 * SECOND));
+        assertEquals(QualityLevel.MINIMAL, policy.evaluate(10, now + 25 * SECOND));
+        assertEquals(QualityLevel.REDUCED, policy.evaluate(10, now + 31 * SECOND));
+
+        // A spike while reduced restarts the calm period
+        assertEquals(QualityLevel.REDUCED, policy.evaluate(20, now + 35 * SECOND));
+        assertEquals(QualityLevel.REDUCED, policy.evaluate(5, now + 36 * SECOND));
+        assertEquals(QualityLevel.REDUCED, policy.evaluate(5, now + 45 * SECOND));
+        assertEquals(QualityLevel.FULL, policy.evaluate(5, now + 46 * SECOND));
+    }
+
+    @Test
+    void degradedAdmissionClampsPngAndSwitchesPdfToTemplate() {
+        QRCodeConfig config = config();
+        AdaptiveQualityPolicy policy = new AdaptiveQualityPolicy(config);
+        policy.evaluate(40, 100 * SECOND);
+
+        try (AdaptiveQualityPolicy.Admission admission = policy.admit()) {
+            assertEquals(QualityLevel.REDUCED, admission.level());
+            assertEquals(new RenderKey(RenderKey.Format.PNG_LOGO, "x", 600, 500),
+                    admission.apply(new RenderKey(RenderKey.Format.PNG_LOGO, "x", 1500, 555)));
+            assertEquals(new RenderKey(RenderKey.Format.PNG, "x", 100, 100),
+                    admission.apply(new RenderKey(RenderKey.Format.PNG, "x", 100, 100)));
+            assertEquals(new RenderKey(RenderKey.Format.PNG, "x", 5000, 600),
+                    admission.apply(new RenderKey(RenderKey.Format.PNG, "x", 5000, 800)), "left for validation");
+            assertEquals(new RenderKey(RenderKey.Format.PDF_TEMPLATE_LOGO, "x", 1500, 1500),
+                    admission.apply(new RenderKey(RenderKey.Format.PDF_LOGO, "x", 1500, 1500)));
+        }
+    }
+
+    @Test
+    void disabledPolicyOnlyCountsRendersInFlight() {
+        AdaptiveQualityPolicy policy = new AdaptiveQualityPolicy(new QRCodeConfig());
+
+        AdaptiveQualityPolicy.Admission admission = policy.admit();
+        assertEquals(QualityLevel.FULL, admission.level());
+        assertEquals(1, policy.stats().get("inFlight"));
+        admission.close();
+        admission.close();
+
+        assertEquals(0, policy.stats().get("inFlight"));
+        assertEquals(0.0, policy.stats().get("averageLatencyMs"), "no latency recorded");
+    }
+
+    @Test
+    void firstCompletionSeedsTheAverage() throws InterruptedException {
+        AdaptiveQualityPolicy policy = new AdaptiveQualityPolicy(config());
+        try (AdaptiveQualityPolicy.Admission admission = policy.admit()) {
+            Thread.sleep(20);
+        }
+        assertTrue((double) policy.stats().get("averageLatencyMs") >= 20, "not weighted against an empty average");
+    }
+
+    private static QRCodeConfig config() {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getDegrade().setEnabled(true);
+        config.getDegrade().getReduced().setInFlight(16);
+        config.getDegrade().getMinimal().setInFlight(64);
+        config.getDegrade().setRecoveryDelay(Duration.ofSeconds(10));
+        return config;
+    }
+}
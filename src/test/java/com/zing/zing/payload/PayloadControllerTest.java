@@ -0,0 +1,91 @@
+package com.zing.zing.payload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.ZingApplication;
+import com.zing.zing.qrController.QRCodeService;
+
+class PayloadControllerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void registeredPayloadIsServedWithImmutableCaching() throws Exception {
+        int port = freePort();
+        context = new SpringApplicationBuilder(ZingApplication.class).run(
+                "--server.port=" + port, "--qrcode.startup.warm-up=false");
+        String base = "http://localhost:" + port + "/api/v1/qr";
+
+        HttpResponse<String> created = post(base + "/payloads", "{\"text\":\"https://example.com/label/7\"}");
+        HttpResponse<String> again = post(base + "/payloads", "{\"text\":\"https://example.com/label/7\"}");
+        Map<String, String> body = objectMapper.readValue(created.body(), new TypeReference<>() {
+        });
+
+        assertEquals(201, created.statusCode());
+        assertEquals(created.body(), again.body(), "same payload, same ID");
+        assertEquals(body.get("png"), created.headers().firstValue("Location").orElseThrow());
+        assertEquals(base + "/" + body.get("id") + ".svg", body.get("svg"));
+
+        HttpResponse<byte[]> png = get(body.get("png"), null);
+        assertEquals(200, png.statusCode());
+        assertEquals("image/png", png.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals("max-age=86400, public", png.headers().firstValue("Cache-Control").orElseThrow());
+        assertArrayEquals(png.body(), get(body.get("png"), null).body());
+
+        String etag = png.headers().firstValue("ETag").orElseThrow();
+        String version = context.getBean(QRCodeService.class).renderVersion();
+        assertEquals("\"" + body.get("id") + ".png." + version + "\"", etag, "ETag covers the render version");
+        assertEquals(200, get(body.get("png"), "\"" + body.get("id") + ".png\"").statusCode(), "older ETag");
+        assertEquals(304, get(body.get("png"), etag).statusCode());
+        assertEquals("image/svg+xml", get(body.get("svg"), null).headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(200, get(body.get("pdf"), null).statusCode());
+
+        assertEquals(404, get(base + "/AAAAAAAAAAAAAAAA.png", null).statusCode());
+        assertEquals(400, post(base + "/payloads", "{\"text\":\"\"}").statusCode());
+    }
+
+    private HttpResponse<String> post(String url, String json) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<byte[]> get(String url, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
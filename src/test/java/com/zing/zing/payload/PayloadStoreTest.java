@@ -0,0 +1,93 @@
+package com.zing.zing.payload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.config.QRCodeConfig;
+
+class PayloadStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void idIsShortStableAndCoversRenderOptions() {
+        StoredPayload payload = new StoredPayload("https://example.com/label/42", 300, 300, false);
+
+        assertEquals(16, payload.id().length());
+        assertTrue(payload.id().matches("[A-Za-z0-9_-]+"));
+        assertEquals(payload.id(), new StoredPayload("https://example.com/label/42", 300, 300, false).id());
+        assertNotEquals(payload.id(), new StoredPayload("https://example.com/label/42", 300, 300, true).id());
+        assertNotEquals(payload.id(), new StoredPayload("https://example.com/label/42", 400, 300, false).id());
+        assertNotEquals(payload.id(), new StoredPayload("https://example.com/label/43", 300, 300, false).id());
+    }
+
+    @Test
+    void evictedPayloadsAreReloadedFromTheDirectory() throws IOException {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPayloads().setMaxEntries(1);
+        config.getPayloads().setDirectory(directory.toString());
+        PayloadStore store = new PayloadStore(config, new ObjectMapper());
+
+        StoredPayload first = new StoredPayload("first", 300, 300, true);
+        String firstId = store.register(first);
+        store.register(new StoredPayload("second", 300, 300, false));
+
+        assertEquals(1, store.size());
+        assertTrue(Files.exists(directory.resolve(firstId + ".json")));
+        assertEquals(first, store.find(firstId));
+        assertEquals(first, new PayloadStore(config, new ObjectMapper()).find(firstId), "survives a restart");
+        assertNull(store.find("AAAAAAAAAAAAAAAA"));
+        assertNull(store.find("../../etc/passwd"));
+    }
+
+    @Test
+    void withoutADirectoryEvictedIdsExpireUntilRegisteredAgain() throws IOException {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPayloads().setMaxEntries(2);
+        PayloadStore store = new PayloadStore(config, new ObjectMapper());
+
+        StoredPayload first = new StoredPayload("first", 300, 300, false);
+        String firstId = store.register(first);
+        store.register(new StoredPayload("second", 300, 300, false));
+        store.register(new StoredPayload("third", 300, 300, false));
+
+        assertNull(store.find(firstId), "evicted IDs expire");
+        assertEquals(firstId, store.register(first));
+        assertEquals(first, store.find(firstId));
+        assertNull(new PayloadStore(config, new ObjectMapper()).find(firstId), "and do not survive a restart");
+    }
+
+    @Test
+    void directoryHoldsAtMostMaxFilesPayloads() throws IOException {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPayloads().setDirectory(directory.toString());
+        config.getPayloads().setMaxFiles(2);
+        PayloadStore store = new PayloadStore(config, new ObjectMapper());
+
+        store.register(new StoredPayload("first", 300, 300, false));
+        String secondId = store.register(new StoredPayload("second", 300, 300, false));
+        assertEquals(secondId, store.register(new StoredPayload("second", 300, 300, false)), "already stored");
+        assertThrows(PayloadStore.FullException.class,
+                () -> store.register(new StoredPayload("third", 300, 300, false)));
+
+        PayloadStore restarted = new PayloadStore(config, new ObjectMapper());
+        assertThrows(PayloadStore.FullException.class,
+                () -> restarted.register(new StoredPayload("fourth", 300, 300, false)), "existing files count");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
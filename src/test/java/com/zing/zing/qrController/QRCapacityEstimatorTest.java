@@ -0,0 +1,55 @@
+package com.zing.zing.qrController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+class QRCapacityEstimatorTest {
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.QR_COMPACT, Boolean.TRUE);
+
+    @Test
+    void estimateNeverExceedsEncodedVersion() throws WriterException {
+        String[] samples = {
+                "A",
+                "1234567890",
+                "MRN-00012345 WARD:ICU/7",
+                "https://example.com/patient?id=123456789&ward=B12",
+                "Zürich – Ünïcödé 患者",
+                "9".repeat(3000)
+        };
+
+        for (String sample : samples) {
+            int estimated = QRCapacityEstimator.estimateMinimumVersion(sample, ErrorCorrectionLevel.H);
+            int actual = Encoder.encode(sample, ErrorCorrectionLevel.H, HINTS).getVersion().getVersionNumber();
+            assertTrue(estimated > 0 && estimated <= actual,
+                    "estimate " + estimated + " must not exceed actual version " + actual);
+        }
+    }
+
+    @Test
+    void rejectsPayloadsThatCannotFit() {
+        String tooLong = "x".repeat(1300);
+
+        assertFalse(QRCapacityEstimator.fits(tooLong, ErrorCorrectionLevel.H));
+        assertEquals(-1, QRCapacityEstimator.estimateMinimumVersion(tooLong, ErrorCorrectionLevel.H));
+        assertThrows(WriterException.class, () -> Encoder.encode(tooLong, ErrorCorrectionLevel.H, HINTS));
+    }
+
+    @Test
+    void acceptsLongNumericPayloads() {
+        assertTrue(QRCapacityEstimator.fits("7".repeat(3000), ErrorCorrectionLevel.H));
+    }
+}
@@ -0,0 +1,104 @@
+package com.zing.zing.qrController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.itextpdf.text.pdf.PRStream;
+import com.itextpdf.text.pdf.PdfDictionary;
+import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfReader;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.render.ModuleLayout;
+
+class QRCodeServicePdfEngineTest {
+
+    private static final String TEXT = "https://kcare.example.com/patient?mrn=000123456";
+    private static final Pattern CM = Pattern.compile(
+            "q ([\\d.-]+) 0 0 ([\\d.-]+) ([\\d.-]+) ([\\d.-]+) cm /(\\w+) Do Q");
+
+    @Test
+    void templatePdfPlacesModulesWhereITextPlacesThePng() throws Exception {
+        for (int size : new int[] { 100, 300, 450, 1000 }) {
+            PdfReader itext = new PdfReader(
+                    service(QRCodeConfig.Pdf.Engine.ITEXT).generateQRCodePDF(TEXT, size, size));
+            PdfReader template = new PdfReader(
+                    service(QRCodeConfig.Pdf.Engine.TEMPLATE).generateQRCodePDF(TEXT, size, size));
+
+            assertFalse(template.isRebuilt(), "cross-reference table must be valid");
+            assertEquals(1, template.getNumberOfPages());
+            assertEquals(itext.getPageSize(1).toString(), template.getPageSize(1).toString());
+
+            double[] image = placement(itext);
+            double[] modules = placement(template);
+            ModuleLayout layout = ModuleLayout.of(matrix().getWidth(), size, size, 2);
+            double scale = image[0] / layout.width();
+
+            assertEquals(layout.symbolSize() * scale, modules[0], 0.01);
+            assertEquals(image[2] + layout.leftPadding() * scale, modules[2], 0.01);
+            assertEquals(image[3] + image[1] - (layout.topPadding() + layout.symbolSize()) * scale, modules[3],
+                    0.01);
+        }
+    }
+
+    @Test
+    void templatePdfEmbedsModuleMatrix() throws Exception {
+        PdfReader reader = new PdfReader(
+                service(QRCodeConfig.Pdf.Engine.TEMPLATE).generateQRCodePDF(TEXT, 300, 300));
+        PdfDictionary xObjects = reader.getPageN(1).getAsDict(PdfName.RESOURCES).getAsDict(PdfName.XOBJECT);
+        PRStream image = (PRStream) PdfReader.getPdfObject(xObjects.get(new PdfName("Qr")));
+        byte[] samples = PdfReader.getStreamBytes(image);
+
+        ByteMatrix matrix = matrix();
+        int stride = (matrix.getWidth() + 7) / 8;
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                boolean light = (samples[y * stride + (x >> 3)] & (0x80 >>> (x & 7))) != 0;
+                assertEquals(matrix.get(x, y) == 0, light, "module " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void templatePdfWithLogoHasLogoImage() throws Exception {
+        byte[] pdf = service(QRCodeConfig.Pdf.Engine.TEMPLATE).generateQRCodePDFWithLogo(TEXT, 400, 400, true);
+        PdfReader reader = new PdfReader(pdf);
+
+        assertFalse(reader.isRebuilt());
+        String content = new String(reader.getPageContent(1), StandardCharsets.US_ASCII);
+        assertTrue(content.contains("/Logo Do"));
+        assertTrue(content.contains("1 g"));
+    }
+
+    private static double[] placement(PdfReader reader) throws IOException {
+        Matcher matcher = CM.matcher(new String(reader.getPageContent(1), StandardCharsets.US_ASCII));
+        assertTrue(matcher.find());
+        return new double[] { Double.parseDouble(matcher.group(1)), Double.parseDouble(matcher.group(2)),
+                Double.parseDouble(matcher.group(3)), Double.parseDouble(matcher.group(4)) };
+    }
+
+    private static ByteMatrix matrix() throws WriterException {
+        return Encoder.encode(TEXT, ErrorCorrectionLevel.H, Map.of(
+                EncodeHintType.CHARACTER_SET, "UTF-8",
+                EncodeHintType.QR_COMPACT, Boolean.TRUE)).getMatrix();
+    }
+
+    private static QRCodeService service(QRCodeConfig.Pdf.Engine engine) {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPdf().setEngine(engine);
+        return QRCodeServices.create(config);
+    }
+}
@@ -0,0 +1,88 @@
+package com.zing.zing.qrController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.WriterException;
+import com.zing.zing.config.QRCodeConfig;
+
+class QRCodeServiceRenderEngineTest {
+
+    private static final String TEXT = "https://kcare.example.com/patient?mrn=000123456";
+
+    @Test
+    void arrayEngineMatchesGraphics2DLogoRender() throws WriterException, IOException {
+        for (int size : new int[] { 100, 300, 777, 2000 }) {
+            BufferedImage graphics = render(QRCodeConfig.Render.Engine.GRAPHICS2D, size);
+            BufferedImage array = render(QRCodeConfig.Render.Engine.ARRAY, size);
+
+            assertEquals(graphics.getWidth(), array.getWidth());
+            assertEquals(graphics.getHeight(), array.getHeight());
+
+            // Only anti-aliased oval edge pixels may differ, and only slightly
+            int differing = 0;
+            for (int y = 0; y < graphics.getHeight(); y++) {
+                for (int x = 0; x < graphics.getWidth(); x++) {
+                    int delta = maxChannelDelta(graphics.getRGB(x, y), array.getRGB(x, y));
+                    assertTrue(delta <= 64, "pixel " + x + "," + y + " differs by " + delta);
+                    if (delta > 2) {
+                        differing++;
+                    }
+                }
+            }
+            assertTrue(differing < size, size + "px render has " + differing + " differing pixels");
+        }
+    }
+
+    @Test
+    void renderVersionChangesWithSettingsThatChangeTheBytes() {
+        QRCodeConfig config = new QRCodeConfig();
+        String version = QRCodeServices.create(config).renderVersion();
+        assertEquals(version, QRCodeServices.create(new QRCodeConfig()).renderVersion());
+
+        config.getRender().setPngWriter(QRCodeConfig.Render.PngWriter.POOLED);
+        String pooled = QRCodeServices.create(config).renderVersion();
+        assertNotEquals(version, pooled);
+
+        QRCodeConfig.Style style = new QRCodeConfig.Style();
+        style.setForeground("#1A3C6E");
+        config.getStyles().put("brand", style);
+        String styled = QRCodeServices.create(config).renderVersion();
+        assertNotEquals(pooled, styled);
+
+        config.getEncoding().setCompact(false);
+        String segmented = QRCodeServices.create(config).renderVersion();
+        assertNotEquals(styled, segmented, "segmentation can change the symbol version");
+
+        config.getRender().setSimd(true);
+        assertNotEquals(segmented, QRCodeServices.create(config).renderVersion(),
+                "SIMD resamples the logo differently");
+    }
+
+    private static BufferedImage render(QRCodeConfig.Render.Engine engine, int size)
+            throws WriterException, IOException {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getRender().setEngine(engine);
+        QRCodeService service = QRCodeServices.create(config);
+
+        byte[] png = service.generateQRCodeImageWithLogo(TEXT, size, size, true);
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    private static int maxChannelDelta(int first, int second) {
+        int max = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            max = Math.max(max, Math.abs(((first >> shift) & 0xFF) - ((second >> shift) & 0xFF)));
+        }
+        return max;
+    }
+}
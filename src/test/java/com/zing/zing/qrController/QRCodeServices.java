@@ -0,0 +1,42 @@
+package com.zing.zing.qrController;
+
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.diagnostics.RenderDiagnostics;
+import com.zing.zing.render.LogoSpriteCache;
+import com.zing.zing.render.QRStyleRegistry;
+import com.zing.zing.render.QRTemplateCache;
+import com.zing.zing.render.RenderBufferPool;
+import com.zing.zing.render.ScalarPixelKernels;
+import com.zing.zing.render.SingleCodePdfWriter;
+import com.zing.zing.render.StyleSpriteCache;
+import com.zing.zing.render.SvgWriter;
+
+/**
+ * QRCodeService wired by hand for tests and benchmarks that run without a
+ * Spring context; the one place to change when the service gains a collaborator
+ */
+public final class QRCodeServices {
+
+    private QRCodeServices() {
+    }
+
+    /**
+     * Service with the default configuration
+     */
+    public static QRCodeService create() {
+        return create(new QRCodeConfig());
+    }
+
+    public static QRCodeService create(QRCodeConfig config) {
+        return create(config, new RenderDiagnostics(config));
+    }
+
+    /**
+     * Service recording its renders in the given diagnostics
+     */
+    public static QRCodeService create(QRCodeConfig config, RenderDiagnostics diagnostics) {
+        return new QRCodeService(config, new QRTemplateCache(config), new LogoSpriteCache(config),
+                new ScalarPixelKernels(), new SingleCodePdfWriter(), new RenderBufferPool(config), diagnostics,
+                new SvgWriter(), new QRStyleRegistry(config), new StyleSpriteCache(config));
+    }
+}
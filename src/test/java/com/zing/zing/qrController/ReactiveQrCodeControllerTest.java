@@ -0,0 +1,112 @@
+package com.zing.zing.qrController;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.ZingApplication;
+
+class ReactiveQrCodeControllerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void reactiveProfileServesTheSameEndpoints() throws Exception {
+        int port = freePort();
+        // Small off-heap pages and chunks so cached responses are streamed in several buffers
+        context = new SpringApplicationBuilder(ZingApplication.class).run(
+                "--server.port=" + port, "--qrcode.startup.warm-up=false", "--spring.profiles.active=reactive",
+                "--qrcode.cache.enabled=true", "--qrcode.cache.off-heap.enabled=true",
+                "--qrcode.cache.off-heap.page-bytes=512", "--qrcode.reactive.chunk-bytes=200");
+        assertInstanceOf(ReactiveWebServerApplicationContext.class, context);
+        String base = "http://localhost:" + port + "/api/v1/qr";
+
+        String text = "https://example.com/reactive";
+        byte[] expected = context.getBean(QRCodeService.class).generateQRCodeImage(text, 300, 300);
+        for (int i = 0; i < 2; i++) {
+            HttpResponse<byte[]> png = get(base + "/qrcode/png?text=" + text, null);
+            assertEquals(200, png.statusCode());
+            assertEquals("image/png", png.headers().firstValue("Content-Type").orElseThrow());
+            assertEquals(String.valueOf(expected.length), png.headers().firstValue("Content-Length").orElseThrow());
+            assertEquals("full", png.headers().firstValue("X-QR-Quality").orElseThrow());
+            assertArrayEquals(expected, png.body(), i == 0 ? "rendered" : "from the off-heap cache");
+        }
+        assertEquals(400, get(base + "/qrcode/png?text=x&style=missing", null).statusCode());
+        assertEquals(400, get(base + "/qrcode/png?text=", null).statusCode());
+        assertEquals(200, get(base + "/qrcode/pdf/logo?text=" + text, null).statusCode());
+
+        HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(base + "/payloads"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"text\":\"" + text + "\"}")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, created.statusCode());
+        Map<String, String> body = objectMapper.readValue(created.body(), new TypeReference<>() {
+        });
+        assertEquals(base + "/" + body.get("id") + ".png", body.get("png"));
+
+        HttpResponse<byte[]> stored = get(body.get("png"), null);
+        assertArrayEquals(expected, stored.body());
+        assertEquals("max-age=86400, public", stored.headers().firstValue("Cache-Control").orElseThrow());
+        assertEquals(304, get(body.get("png"), stored.headers().firstValue("ETag").orElseThrow()).statusCode());
+        assertEquals(404, get(base + "/AAAAAAAAAAAAAAAA.png", null).statusCode());
+    }
+
+    @Test
+    void peerEndpointAnswersRingMembers() throws Exception {
+        int port = freePort();
+        String self = "http://127.0.0.1:" + port;
+        context = new SpringApplicationBuilder(ZingApplication.class).run(
+                "--server.port=" + port, "--qrcode.startup.warm-up=false", "--spring.profiles.active=reactive",
+                "--qrcode.cache.enabled=true", "--qrcode.cache.self-url=" + self,
+                "--qrcode.cache.peers=" + self + ",http://10.0.0.2:8080");
+
+        HttpResponse<byte[]> rendered = client.send(HttpRequest.newBuilder(URI.create(self
+                + "/internal/v1/cache/render")).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"format\":\"PNG\",\"text\":\"peer\",\"width\":300,"
+                        + "\"height\":300}")).build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, rendered.statusCode());
+        assertArrayEquals(context.getBean(QRCodeService.class).generateQRCodeImage("peer", 300, 300),
+                rendered.body());
+    }
+
+    private HttpResponse<byte[]> get(String url, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.zing.zing.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zing.zing.cache.PeerRenderCache;
+import com.zing.zing.cache.RenderKey;
+import com.zing.zing.cache.RenderOutput;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.load.AdaptiveQualityPolicy;
+import com.zing.zing.qrController.QRCodeServices;
+import com.zing.zing.render.QRStyleRegistry;
+
+import reactor.core.Disposable;
+
+class ReactiveRendererTest {
+
+    @Test
+    void outputFinishedAfterCancellationIsClosed() throws Exception {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getCache().setEnabled(true);
+        config.getCache().getOffHeap().setEnabled(true);
+        config.getCache().getOffHeap().setMaxBytes(4096);
+        config.getCache().getOffHeap().setSlabBytes(4096);
+        config.getCache().getOffHeap().setPageBytes(1024);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        PeerRenderCache cache = new PeerRenderCache(QRCodeServices.create(config), config, new ObjectMapper()) {
+            @Override
+            public RenderOutput getOutput(RenderKey key) {
+                started.countDown();
+                // Not interruptible, like a render already under way
+                while (proceed.getCount() > 0) {
+                    Thread.onSpinWait();
+                }
+                return super.getOutput(key);
+            }
+        };
+        ReactiveRenderer renderer = new ReactiveRenderer(config, cache, new AdaptiveQualityPolicy(config),
+                new QRStyleRegistry(config));
+        RenderKey leased = key("leased");
+        cache.getLocal(leased);
+
+        try {
+            Disposable request = renderer.render(leased).subscribe();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            request.dispose();
+            proceed.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((long) renderer.stats().get("completedRenders") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1L, renderer.stats().get("completedRenders"));
+
+            // Four more single-page entries evict the first one only if its lease was closed
+            for (int i = 0; i < 4; i++) {
+                cache.getLocal(key("filler-" + i));
+            }
+            cache.getLocal(leased);
+            assertEquals(6L, cache.stats().get("renders"), "the cancelled request's entry was evicted");
+        } finally {
+            renderer.destroy();
+        }
+    }
+
+    private static RenderKey key(String text) {
+        return new RenderKey(RenderKey.Format.PNG, text, 300, 300);
+    }
+}
@@ -0,0 +1,67 @@
+package com.zing.zing.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.zing.zing.cache.RenderOutput;
+
+import reactor.core.publisher.BaseSubscriber;
+
+class RenderOutputPublisherTest {
+
+    @Test
+    void outputIsSplitIntoChunks() {
+        byte[] bytes = new byte[2500];
+        new Random(1).nextBytes(bytes);
+
+        List<DataBuffer> chunks = RenderOutputPublisher
+                .publish(RenderOutput.of(bytes), DefaultDataBufferFactory.sharedInstance, 1000).collectList().block();
+
+        assertEquals(List.of(1000, 1000, 500), chunks.stream().map(DataBuffer::readableByteCount).toList());
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (DataBuffer chunk : chunks) {
+            byte[] part = new byte[chunk.readableByteCount()];
+            chunk.read(part);
+            joined.writeBytes(part);
+        }
+        assertArrayEquals(bytes, joined.toByteArray());
+    }
+
+    @Test
+    void chunksAreProducedOnlyOnDemand() {
+        List<Integer> received = new ArrayList<>();
+        BaseSubscriber<DataBuffer> slowClient = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(DataBuffer value) {
+                received.add(value.readableByteCount());
+            }
+        };
+
+        RenderOutputPublisher.publish(RenderOutput.of(new byte[10_000]), DefaultDataBufferFactory.sharedInstance,
+                1000).subscribe(slowClient);
+        assertEquals(1, received.size(), "one chunk per request");
+
+        slowClient.request(2);
+        assertEquals(3, received.size());
+
+        slowClient.cancel();
+        assertTrue(slowClient.isDisposed());
+        assertEquals(3, received.size(), "nothing is generated after cancellation");
+    }
+}
@@ -0,0 +1,72 @@
+package com.zing.zing.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PixelKernelsTest {
+
+    private final ScalarPixelKernels scalar = new ScalarPixelKernels();
+    private final PixelKernels vector = PixelKernelsFactory.create(true);
+
+    @Test
+    void vectorKernelsAreAvailableInTests() {
+        assertTrue(vector instanceof VectorPixelKernels, "surefire runs with --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void vectorBlendMatchesScalar() {
+        Random random = new Random(42);
+        for (int length : new int[] { 1, 7, 16, 33, 500, 1027 }) {
+            int[] src = random.ints(length).toArray();
+            int[] dst = random.ints(length).map(rgb -> rgb | 0xFF000000).toArray();
+            int[] expected = dst.clone();
+            int[] actual = dst.clone();
+
+            scalar.blendSrcOver(expected, 0, src, 0, length);
+            vector.blendSrcOver(actual, 0, src, 0, length);
+
+            assertArrayEquals(expected, actual, "length " + length);
+        }
+    }
+
+    @Test
+    void blendMatchesSrcOverRule() {
+        int[] dst = { 0xFF000000, 0xFF102030, 0xFFFFFFFF };
+        int[] src = { 0x80FFFFFF, 0x00ABCDEF, 0xFF0066CC };
+
+        scalar.blendSrcOver(dst, 0, src, 0, 3);
+
+        assertEquals(0xFF808080, dst[0]);
+        assertEquals(0xFF102030, dst[1]);
+        assertEquals(0xFF0066CC, dst[2]);
+    }
+
+    @Test
+    void vectorResampleMatchesScalar() {
+        Random random = new Random(7);
+        int[] logo = random.ints(129 * 36).toArray();
+
+        for (int size : new int[] { 25, 75, 131, 500 }) {
+            assertArrayEquals(scalar.resample(logo, 129, 36, size, size),
+                    vector.resample(logo, 129, 36, size, size), "size " + size);
+        }
+    }
+
+    @Test
+    void resamplePreservesUniformColour() {
+        int[] solid = new int[40 * 10];
+        Arrays.fill(solid, 0xFF0066CC);
+
+        for (int[] size : new int[][] { { 13, 13 }, { 40, 10 }, { 200, 50 } }) {
+            int[] resampled = scalar.resample(solid, 40, 10, size[0], size[1]);
+            assertTrue(Arrays.stream(resampled).allMatch(pixel -> pixel == 0xFF0066CC),
+                    size[0] + "x" + size[1]);
+        }
+    }
+}
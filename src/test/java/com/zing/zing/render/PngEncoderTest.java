@@ -0,0 +1,50 @@
+package com.zing.zing.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class PngEncoderTest {
+
+    @Test
+    void encodesRgbAndBinaryRastersLosslessly() throws Exception {
+        Random random = new Random(7);
+        for (int type : new int[] { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_BYTE_BINARY }) {
+            for (int width : new int[] { 1, 13, 301, 2000 }) {
+                BufferedImage image = new BufferedImage(width, 37, type);
+                for (int y = 0; y < image.getHeight(); y++) {
+                    for (int x = 0; x < width; x++) {
+                        image.setRGB(x, y, type == BufferedImage.TYPE_INT_RGB ? random.nextInt()
+                                : random.nextBoolean() ? 0xFFFFFFFF : 0xFF000000);
+                    }
+                }
+
+                // Encode twice to cover reuse of the per-thread scratch state
+                ByteArrayOutputStream first = new ByteArrayOutputStream();
+                PngEncoder.encode(image, first);
+                ByteArrayOutputStream second = new ByteArrayOutputStream();
+                PngEncoder.encode(image, second);
+                assertArrayEquals(first.toByteArray(), second.toByteArray());
+
+                BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(first.toByteArray()));
+                assertEquals(width, decoded.getWidth());
+                assertArrayEquals(image.getRGB(0, 0, width, 37, null, 0, width),
+                        decoded.getRGB(0, 0, width, 37, null, 0, width), "type " + type + " width " + width);
+            }
+        }
+    }
+
+    @Test
+    void rejectsOtherImageTypes() {
+        assertFalse(PngEncoder.supports(new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.zing.zing.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+
+class QRTemplateTest {
+
+    private static final int MARGIN = 2;
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H,
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.MARGIN, MARGIN);
+
+    @Test
+    void templateRenderMatchesQRCodeWriter() throws WriterException {
+        String[][] pairs = {
+                { "A", "B" },
+                { "https://example.com/patient/1", "https://example.com/patient/2" },
+                { "x".repeat(300), "y".repeat(300) },
+                { "z".repeat(1200), "w".repeat(1200) }
+        };
+        int[] sizes = { 100, 300, 517, 2000 };
+
+        for (String[] pair : pairs) {
+            QRCode first = Encoder.encode(pair[0], ErrorCorrectionLevel.H, HINTS);
+            QRCode second = Encoder.encode(pair[1], ErrorCorrectionLevel.H, HINTS);
+            assertEquals(first.getVersion(), second.getVersion());
+
+            for (int size : sizes) {
+                for (int imageType : new int[] { BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_INT_RGB }) {
+                    // Template built from one code must render a different code of the same version
+                    QRTemplate template = QRTemplate.build(first.getVersion(), first.getMatrix(), size, size,
+                            MARGIN, imageType);
+                    BufferedImage image = template.render(second.getMatrix());
+                    BitMatrix expected = new QRCodeWriter().encode(pair[1], BarcodeFormat.QR_CODE, size, size,
+                            HINTS);
+
+                    assertMatches(expected, image);
+                }
+            }
+        }
+    }
+
+    private static void assertMatches(BitMatrix expected, BufferedImage image) {
+        assertEquals(expected.getWidth(), image.getWidth());
+        assertEquals(expected.getHeight(), image.getHeight());
+
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int expectedRgb = expected.get(x, y) ? 0xFF000000 : 0xFFFFFFFF;
+                assertEquals(expectedRgb, image.getRGB(x, y), "pixel mismatch at " + x + "," + y);
+            }
+        }
+    }
+}
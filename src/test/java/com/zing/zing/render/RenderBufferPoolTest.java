@@ -0,0 +1,81 @@
+package com.zing.zing.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+class RenderBufferPoolTest {
+
+    @Test
+    void reusesRastersOfTheSameSizeWithinTheBound() {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPool().setMaxRasterBytes(300 * 300 * 4);
+        RenderBufferPool pool = new RenderBufferPool(config);
+
+        BufferedImage first = pool.acquireImage(300, 300, BufferedImage.TYPE_INT_RGB);
+        BufferedImage second = pool.acquireImage(300, 300, BufferedImage.TYPE_INT_RGB);
+        pool.releaseImage(first);
+        pool.releaseImage(second);
+
+        assertSame(first, pool.acquireImage(300, 300, BufferedImage.TYPE_INT_RGB));
+        assertNotSame(second, pool.acquireImage(300, 300, BufferedImage.TYPE_INT_RGB), "over the byte bound");
+        assertNotSame(first, pool.acquireImage(300, 300, BufferedImage.TYPE_BYTE_BINARY));
+    }
+
+    @Test
+    void buffersKeepTheirCapacityAndStartEmpty() {
+        RenderBufferPool pool = new RenderBufferPool(new QRCodeConfig());
+
+        RenderBufferPool.Buffer buffer = pool.acquireBuffer();
+        buffer.writeBytes(new byte[200_000]);
+        int capacity = buffer.capacity();
+        pool.releaseBuffer(buffer);
+
+        RenderBufferPool.Buffer again = pool.acquireBuffer();
+        assertSame(buffer, again);
+        assertEquals(0, again.size());
+        assertEquals(capacity, again.capacity());
+    }
+
+    @Test
+    void pooledRendersMatchUnpooledRenders() throws Exception {
+        QRCodeService pooled = service(true);
+        QRCodeService unpooled = service(false);
+
+        // Alternate payloads so each render reuses a raster holding a different code
+        for (String text : new String[] { "first payload", "a much longer second payload 0123456789",
+                "first payload" }) {
+            assertArrayEquals(pixels(unpooled.generateQRCodeImage(text, 400, 400)),
+                    pixels(pooled.generateQRCodeImage(text, 400, 400)));
+            assertArrayEquals(pixels(unpooled.generateQRCodeImageWithLogo(text, 400, 400, true)),
+                    pixels(pooled.generateQRCodeImageWithLogo(text, 400, 400, true)));
+        }
+    }
+
+    private static int[] pixels(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static QRCodeService service(boolean pooled) {
+        QRCodeConfig config = new QRCodeConfig();
+        config.getPool().setEnabled(pooled);
+        config.getRender().setPngWriter(pooled ? QRCodeConfig.Render.PngWriter.POOLED
+                : QRCodeConfig.Render.PngWriter.IMAGEIO);
+        config.getRender().setEngine(QRCodeConfig.Render.Engine.ARRAY);
+        return QRCodeServices.create(config);
+    }
+}
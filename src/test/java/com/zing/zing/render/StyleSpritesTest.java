@@ -0,0 +1,120 @@
+package com.zing.zing.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.zing.zing.config.QRCodeConfig;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+class StyleSpritesTest {
+
+    @Test
+    void everyShapeCombinationDecodes() throws Exception {
+        QRCodeConfig config = new QRCodeConfig();
+        for (QRStyle.ModuleShape modules : QRStyle.ModuleShape.values()) {
+            for (QRStyle.FinderShape finders : QRStyle.FinderShape.values()) {
+                QRCodeConfig.Style style = new QRCodeConfig.Style();
+                style.setForeground("#1A3C6E");
+                style.setBackground("#FFF8E7");
+                style.setModules(modules);
+                style.setFinders(finders);
+                config.getStyles().put(name(modules, finders), style);
+            }
+        }
+        config.getRender().setEngine(QRCodeConfig.Render.Engine.ARRAY);
+        QRCodeService service = QRCodeServices.create(config);
+        String text = "https://example.com/styled?id=12345";
+
+        for (QRStyle.ModuleShape modules : QRStyle.ModuleShape.values()) {
+            for (QRStyle.FinderShape finders : QRStyle.FinderShape.values()) {
+                String style = name(modules, finders);
+                for (boolean logo : new boolean[] { false, true }) {
+                    byte[] png = service.generateQRCodeImageWithLogo(text, 400, 400, logo, style);
+                    assertEquals(text, decode(png), style + ", logo " + logo);
+                }
+            }
+        }
+
+        String svg = new String(service.generateQRCodeSVG(text, 400, 400, false, "dot-rounded"),
+                StandardCharsets.UTF_8);
+        assertTrue(svg.contains("<path id=\"m\" ") && svg.contains("<use xlink:href=\"#m\""));
+        assertEquals(3, svg.split("<use xlink:href=\"#f\"", -1).length - 1, "one use per finder pattern");
+        assertTrue(svg.contains("fill=\"#fff8e7\""));
+    }
+
+    @Test
+    void spritesAreRenderedOncePerModuleSizeAndCopiedIntoPlace() {
+        QRStyle style = new QRStyle("brand", 0x102030, 0xFFFFFF, QRStyle.ModuleShape.SQUARE,
+                QRStyle.FinderShape.SQUARE);
+        StyleSpriteCache cache = new StyleSpriteCache(new QRCodeConfig());
+        StyleSprites sprites = cache.getSprites(style, 4);
+        assertSame(sprites, cache.getSprites(style, 4));
+
+        ByteMatrix modules = new ByteMatrix(21, 21);
+        modules.clear((byte) 0);
+        modules.set(10, 10, 1);
+        ModuleLayout layout = ModuleLayout.of(21, 100, 100, 2);
+        assertEquals(4, layout.multiple());
+        int[] pixels = new int[layout.width() * layout.height()];
+        sprites.renderInto(modules, layout, pixels);
+
+        int left = layout.leftPadding();
+        int top = layout.topPadding();
+        assertEquals(0x102030, pixels[(top + 41) * layout.width() + left + 41] & 0xFFFFFF, "dark data module");
+        assertEquals(0xFFFFFF, pixels[(top + 41) * layout.width() + left + 37] & 0xFFFFFF, "light data module");
+        assertEquals(0x102030, pixels[top * layout.width() + left] & 0xFFFFFF, "finder drawn without modules");
+        assertEquals(0xFFFFFF, pixels[0] & 0xFFFFFF, "quiet zone");
+    }
+
+    @Test
+    void registryRejectsStylesThatWouldNotScan() {
+        QRCodeConfig config = new QRCodeConfig();
+        QRCodeConfig.Style inverted = new QRCodeConfig.Style();
+        inverted.setForeground("#FFFFFF");
+        inverted.setBackground("#000000");
+        config.getStyles().put("inverted", inverted);
+        assertThrows(IllegalStateException.class, () -> new QRStyleRegistry(config));
+
+        config.getStyles().clear();
+        QRCodeConfig.Style faint = new QRCodeConfig.Style();
+        faint.setForeground("#AAAAAA");
+        config.getStyles().put("faint", faint);
+        assertThrows(IllegalStateException.class, () -> new QRStyleRegistry(config));
+
+        QRStyleRegistry empty = new QRStyleRegistry(new QRCodeConfig());
+        assertNull(empty.find(""));
+        assertThrows(IllegalArgumentException.class, () -> empty.find("missing"));
+    }
+
+    private static String name(QRStyle.ModuleShape modules, QRStyle.FinderShape finders) {
+        return modules.name().toLowerCase() + "-" + finders.name().toLowerCase();
+    }
+
+    /**
+     * Decodes like a phone scanner would; rounded finders need the slower finder search
+     */
+    private static String decode(byte[] png) throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+        return new QRCodeReader().decode(bitmap, Map.of(DecodeHintType.TRY_HARDER, Boolean.TRUE)).getText();
+    }
+}
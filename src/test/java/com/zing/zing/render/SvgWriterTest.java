@@ -0,0 +1,77 @@
+package com.zing.zing.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.zing.zing.qrController.QRCodeService;
+import com.zing.zing.qrController.QRCodeServices;
+
+class SvgWriterTest {
+
+    private static final Pattern RUN = Pattern.compile("M(\\d+),(\\d+)h(\\d+)v(\\d+)h-\\d+z");
+
+    @Test
+    void svgCoversExactlyTheDarkPixelsOfThePng() throws Exception {
+        QRCodeService service = QRCodeServices.create();
+        String text = "https://example.com/svg?id=12345";
+
+        BufferedImage png = ImageIO.read(new ByteArrayInputStream(service.generateQRCodeImage(text, 333, 333)));
+        String svg = new String(service.generateQRCodeSVG(text, 333, 333, false), StandardCharsets.UTF_8);
+
+        assertTrue(svg.contains("width=\"" + png.getWidth() + "\" height=\"" + png.getHeight() + "\""));
+        boolean[][] dark = new boolean[png.getHeight()][png.getWidth()];
+        Matcher run = RUN.matcher(svg);
+        while (run.find()) {
+            int x = Integer.parseInt(run.group(1));
+            int y = Integer.parseInt(run.group(2));
+            for (int dy = 0; dy < Integer.parseInt(run.group(4)); dy++) {
+                for (int dx = 0; dx < Integer.parseInt(run.group(3)); dx++) {
+                    dark[y + dy][x + dx] = true;
+                }
+            }
+        }
+
+        for (int y = 0; y < png.getHeight(); y++) {
+            for (int x = 0; x < png.getWidth(); x++) {
+                boolean pngDark = (png.getRGB(x, y) & 0xFFFFFF) == 0;
+                assertEquals(pngDark, dark[y][x], "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void logoIsEmbeddedOnceAndCachedPerSize() {
+        ByteMatrix modules = new ByteMatrix(21, 21);
+        modules.clear((byte) 1);
+        ModuleLayout layout = ModuleLayout.of(21, 300, 300, 2);
+        AtomicInteger renders = new AtomicInteger();
+        SvgWriter writer = new SvgWriter();
+
+        String first = new String(writer.writeWithLogo(modules, layout, size -> {
+            renders.incrementAndGet();
+            return new int[size * size];
+        }), StandardCharsets.UTF_8);
+        String second = new String(writer.writeWithLogo(modules, layout, size -> {
+            renders.incrementAndGet();
+            return new int[size * size];
+        }), StandardCharsets.UTF_8);
+
+        assertEquals(1, renders.get());
+        assertEquals(first, second);
+        assertTrue(first.contains("<image x=\"112\" y=\"112\" width=\"75\" height=\"75\""));
+        assertTrue(first.contains("data:image/png;base64,"));
+        assertEquals(-1, first.indexOf("<image", first.indexOf("<image") + 1));
+    }
+}